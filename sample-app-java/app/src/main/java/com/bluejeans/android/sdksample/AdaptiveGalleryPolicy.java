@@ -0,0 +1,323 @@
+/*
+ * Copyright (c) 2021 Blue Jeans Network, Inc. All rights reserved.
+ */
+package com.bluejeans.android.sdksample;
+
+import android.app.ActivityManager;
+import android.content.Context;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.PowerManager;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RequiresApi;
+
+import com.bluejeans.android.sdksample.utils.FrameDropCounter;
+import com.bluejeans.bluejeanssdk.GalleryLayoutConfiguration;
+import com.bluejeans.bluejeanssdk.meeting.MeetingService;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.subjects.PublishSubject;
+
+/**
+ * Steps the video layout down when the device runs hot and back up once it has recovered.
+ * <ul>
+ * <li>{@link #getInitialGalleryConfiguration(Context)} picks the gallery size at SDK init from the device class, the
+ * SDK only offers 5x5 and 3x3 and fixes it for the lifetime of the SDK.</li>
+ * <li>During a meeting the layout follows the ladder Gallery, People, Speaker, each step decodes fewer tiles. Pressure
+ * is sampled every {@link #SAMPLE_INTERVAL_MS} from the thermal status, the process CPU load and dropped frames.
+ * One step down needs {@link #STEP_DOWN_SAMPLES} samples under pressure, a thermal status of severe or worse steps
+ * down right away. One step up needs {@link #STEP_UP_SAMPLES} calm samples in a row.</li>
+ * <li>The layout picked by the user is the ceiling, the policy never goes above it and steps down from it.</li>
+ * <li>A {@link Constraint} lowers the ceiling while the window is small, e.g. in split screen or picture-in-picture, so fewer streams are
+ * decoded without restarting the SDK.</li>
+ * </ul>
+ * Every transition is published on {@link #getTransitions()} with its reason.
+ * Use from the main thread only.
+ */
+public class AdaptiveGalleryPolicy {
+    private static final String TAG = "AdaptiveGalleryPolicy";
+    private static final long SAMPLE_INTERVAL_MS = 5_000;
+    private static final int STEP_DOWN_SAMPLES = 2;
+    private static final int STEP_UP_SAMPLES = 12;
+    private static final float HIGH_CPU_LOAD = 0.8f;
+    private static final float CALM_CPU_LOAD = 0.5f;
+    private static final float HIGH_FRAME_DROP_RATIO = 0.25f;
+    private static final float CALM_FRAME_DROP_RATIO = 0.05f;
+    private static final long FIVE_BY_FIVE_MIN_MEMORY_BYTES = 4L * 1024 * 1024 * 1024;
+    private static final int FIVE_BY_FIVE_MIN_CORES = 8;
+
+    /**
+     * Layouts ordered by the number of decoded tiles, cheapest first.
+     */
+    private static final List<MeetingService.VideoLayout> LADDER = Arrays.asList(
+            MeetingService.VideoLayout.Speaker.INSTANCE,
+            MeetingService.VideoLayout.People.INSTANCE,
+            MeetingService.VideoLayout.Gallery.INSTANCE);
+
+    public enum Reason {
+        THERMAL, CPU_LOAD, FRAME_DROPS, RECOVERED, CONSTRAINED
+    }
+
+    /**
+     * Window modes that cap the layout, whatever the device can afford.
+     */
+    public enum Constraint {
+        MULTI_WINDOW(MeetingService.VideoLayout.People.INSTANCE),
+        PICTURE_IN_PICTURE(MeetingService.VideoLayout.Speaker.INSTANCE);
+
+        private final MeetingService.VideoLayout mCeiling;
+
+        Constraint(MeetingService.VideoLayout ceiling) {
+            mCeiling = ceiling;
+        }
+    }
+
+    public static final class Transition {
+        private final MeetingService.VideoLayout mFrom;
+        private final MeetingService.VideoLayout mTo;
+        private final Reason mReason;
+
+        private Transition(MeetingService.VideoLayout from, MeetingService.VideoLayout to, Reason reason) {
+            mFrom = from;
+            mTo = to;
+            mReason = reason;
+        }
+
+        public MeetingService.VideoLayout getFrom() {
+            return mFrom;
+        }
+
+        public MeetingService.VideoLayout getTo() {
+            return mTo;
+        }
+
+        public Reason getReason() {
+            return mReason;
+        }
+
+        public boolean isStepDown() {
+            return LADDER.indexOf(mTo) < LADDER.indexOf(mFrom);
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "Transition{" + mFrom + " -> " + mTo + ", reason=" + mReason + "}";
+        }
+    }
+
+    private final MeetingService mMeetingService;
+    private final PowerManager mPowerManager;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final Runnable mSample = this::sample;
+    private final FrameDropCounter mFrameDropCounter;
+    private final PublishSubject<Transition> mTransitions = PublishSubject.create();
+    private final EnumSet<Constraint> mConstraints = EnumSet.noneOf(Constraint.class);
+    private final LadderPosition mPosition = new LadderPosition(LADDER.size() - 1);
+    private PowerManager.OnThermalStatusChangedListener mThermalListener = null;
+
+    private boolean mIsStarted = false;
+    private MeetingService.VideoLayout mPreferredLayout = MeetingService.VideoLayout.Gallery.INSTANCE;
+    private int mPressureSamples = 0;
+    private int mCalmSamples = 0;
+    private long mLastCpuMs;
+    private long mLastFrames;
+    private long mLastDropped;
+    private long mLastSampleAt;
+
+    public AdaptiveGalleryPolicy(Context context, MeetingService meetingService, FrameDropCounter frameDropCounter) {
+        mMeetingService = meetingService;
+        mFrameDropCounter = frameDropCounter;
+        mPowerManager = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+    }
+
+    /**
+     * 5x5 on devices with the memory and cores to decode it, 3x3 otherwise or when the device is already warm.
+     */
+    public static GalleryLayoutConfiguration getInitialGalleryConfiguration(Context context) {
+        ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        ActivityManager.MemoryInfo memoryInfo = new ActivityManager.MemoryInfo();
+        activityManager.getMemoryInfo(memoryInfo);
+        boolean isCapable = !activityManager.isLowRamDevice()
+                && memoryInfo.totalMem >= FIVE_BY_FIVE_MIN_MEMORY_BYTES
+                && Runtime.getRuntime().availableProcessors() >= FIVE_BY_FIVE_MIN_CORES;
+        boolean isWarm = false;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            PowerManager powerManager = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+            isWarm = powerManager.getCurrentThermalStatus() >= PowerManager.THERMAL_STATUS_MODERATE;
+        }
+        Log.i(TAG, "Gallery configuration capable " + isCapable + ", warm " + isWarm);
+        return isCapable && !isWarm
+                ? new GalleryLayoutConfiguration.FiveByFive()
+                : new GalleryLayoutConfiguration.ThreeByThree();
+    }
+
+    public Observable<Transition> getTransitions() {
+        return mTransitions;
+    }
+
+    /**
+     * Starts sampling for a meeting from the layout last picked through {@link #setPreferredLayout}.
+     */
+    public void start() {
+        if (mIsStarted) {
+            return;
+        }
+        mIsStarted = true;
+        mPosition.reset();
+        mPressureSamples = 0;
+        mCalmSamples = 0;
+        applyEffectiveLayout(mPreferredLayout, Reason.CONSTRAINED);
+        mLastCpuMs = Process.getElapsedCpuTime();
+        mLastSampleAt = SystemClock.elapsedRealtime();
+        mFrameDropCounter.start();
+        mLastFrames = mFrameDropCounter.getFrames();
+        mLastDropped = mFrameDropCounter.getDropped();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            addThermalListener();
+        }
+        mHandler.postDelayed(mSample, SAMPLE_INTERVAL_MS);
+    }
+
+    public void stop() {
+        if (!mIsStarted) {
+            return;
+        }
+        mIsStarted = false;
+        mHandler.removeCallbacks(mSample);
+        mFrameDropCounter.stop();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q && mThermalListener != null) {
+            mPowerManager.removeThermalStatusListener(mThermalListener);
+            mThermalListener = null;
+        }
+        // steps and constraints of this meeting must not carry over as the ceiling of the next one
+        mPosition.reset();
+        mMeetingService.setVideoLayout(mPreferredLayout);
+    }
+
+    /**
+     * Call when the user picks a layout, it becomes the ceiling for the policy and is kept across meetings.
+     */
+    public void setPreferredLayout(MeetingService.VideoLayout layout) {
+        mPreferredLayout = layout;
+        mPosition.setCeiling(getCeiling());
+        if (mIsStarted) {
+            mMeetingService.setVideoLayout(getEffectiveLayout());
+        } else {
+            mMeetingService.setVideoLayout(layout);
+        }
+    }
+
+    /**
+     * Caps the layout while the constraint holds, applied right away during a meeting and on {@link #start()}
+     * otherwise.
+     */
+    public void setConstrained(Constraint constraint, boolean isConstrained) {
+        MeetingService.VideoLayout from = getEffectiveLayout();
+        if (isConstrained) {
+            mConstraints.add(constraint);
+        } else {
+            mConstraints.remove(constraint);
+        }
+        mPosition.setCeiling(getCeiling());
+        if (mIsStarted) {
+            applyEffectiveLayout(from, Reason.CONSTRAINED);
+        }
+    }
+
+    @RequiresApi(Build.VERSION_CODES.Q)
+    private void addThermalListener() {
+        mThermalListener = status -> {
+            if (status >= PowerManager.THERMAL_STATUS_SEVERE) {
+                step(1, Reason.THERMAL);
+            }
+        };
+        mPowerManager.addThermalStatusListener(mThermalListener);
+    }
+
+    private void sample() {
+        long now = SystemClock.elapsedRealtime();
+        long cpuMs = Process.getElapsedCpuTime();
+        float cpuLoad = (cpuMs - mLastCpuMs)
+                / (float) (Math.max(1, now - mLastSampleAt) * Runtime.getRuntime().availableProcessors());
+        mLastCpuMs = cpuMs;
+        mLastSampleAt = now;
+        long frames = mFrameDropCounter.getFrames();
+        long dropped = mFrameDropCounter.getDropped();
+        float frameDropRatio = frames == mLastFrames ? 0f : (dropped - mLastDropped) / (float) (frames - mLastFrames);
+        mLastFrames = frames;
+        mLastDropped = dropped;
+        int thermalStatus = Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q
+                ? mPowerManager.getCurrentThermalStatus() : PowerManager.THERMAL_STATUS_NONE;
+
+        Reason pressure = null;
+        if (thermalStatus >= PowerManager.THERMAL_STATUS_SEVERE) {
+            pressure = Reason.THERMAL;
+        } else if (cpuLoad > HIGH_CPU_LOAD) {
+            pressure = Reason.CPU_LOAD;
+        } else if (frameDropRatio > HIGH_FRAME_DROP_RATIO) {
+            pressure = Reason.FRAME_DROPS;
+        }
+        boolean isCalm = thermalStatus <= PowerManager.THERMAL_STATUS_LIGHT
+                && cpuLoad < CALM_CPU_LOAD && frameDropRatio < CALM_FRAME_DROP_RATIO;
+
+        if (pressure == Reason.THERMAL) {
+            step(1, pressure);
+        } else if (pressure != null) {
+            mCalmSamples = 0;
+            if (++mPressureSamples >= STEP_DOWN_SAMPLES) {
+                step(1, pressure);
+            }
+        } else if (isCalm) {
+            mPressureSamples = 0;
+            if (++mCalmSamples >= STEP_UP_SAMPLES) {
+                step(-1, Reason.RECOVERED);
+            }
+        } else {
+            // in between, hold the current step
+            mPressureSamples = 0;
+            mCalmSamples = 0;
+        }
+        mHandler.postDelayed(mSample, SAMPLE_INTERVAL_MS);
+    }
+
+    private void step(int delta, Reason reason) {
+        mPressureSamples = 0;
+        mCalmSamples = 0;
+        MeetingService.VideoLayout from = getEffectiveLayout();
+        if (mPosition.step(delta)) {
+            applyEffectiveLayout(from, reason);
+        }
+    }
+
+    private void applyEffectiveLayout(MeetingService.VideoLayout from, Reason reason) {
+        MeetingService.VideoLayout to = getEffectiveLayout();
+        if (from != to) {
+            Transition transition = new Transition(from, to, reason);
+            Log.i(TAG, transition.toString());
+            mMeetingService.setVideoLayout(to);
+            mTransitions.onNext(transition);
+        }
+    }
+
+    private MeetingService.VideoLayout getEffectiveLayout() {
+        return LADDER.get(mPosition.getLevel());
+    }
+
+    private int getCeiling() {
+        int ceiling = Math.max(0, LADDER.indexOf(mPreferredLayout));
+        for (Constraint constraint : mConstraints) {
+            ceiling = Math.min(ceiling, LADDER.indexOf(constraint.mCeiling));
+        }
+        return ceiling;
+    }
+}
@@ -0,0 +1,309 @@
+/*
+ * Copyright (c) 2021 Blue Jeans Network, Inc. All rights reserved.
+ */
+package com.bluejeans.android.sdksample;
+
+import android.content.Context;
+import android.net.TrafficStats;
+import android.os.BatteryManager;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.ProcessLifecycleOwner;
+
+import com.bluejeans.bluejeanssdk.meeting.MeetingService;
+
+import java.util.Locale;
+
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.subjects.PublishSubject;
+import kotlin.Unit;
+
+/**
+ * Stops receiving remote video and content while no activity of the app is visible.
+ * The foreground service keeps the meeting alive in the background, without this policy it also keeps decoding video
+ * nobody can see. Driven by {@link ProcessLifecycleOwner}:
+ * <ul>
+ * <li>on stop, after {@link #BACKGROUND_GRACE_MS} so that quick app switches don't cost a stream restart, remote
+ * video and content are muted through the {@link RemoteMediaGate}.</li>
+ * <li>on start they are unmuted right away, the time until remote video is active again is checked against
+ * {@link #WARM_START_BUDGET_MS}.</li>
+ * </ul>
+ * At the end of every meeting a {@link Report} estimates the CPU time, battery charge and received bytes saved, by
+ * comparing the usage while downshifted with the foreground rate of the same meeting.
+ */
+public class BackgroundMediaPolicy implements LifecycleEventObserver {
+    private static final String TAG = "BackgroundMediaPolicy";
+    static final long BACKGROUND_GRACE_MS = 3_000;
+    static final long WARM_START_BUDGET_MS = 1_500;
+
+    private final MeetingService mMeetingService;
+    private final RemoteMediaGate mRemoteMediaGate;
+    private final BatteryManager mBatteryManager;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final Runnable mDownshift = this::downshift;
+    private final PublishSubject<Report> mReports = PublishSubject.create();
+
+    private boolean mIsInMeeting = false;
+    private boolean mIsForeground = false;
+    private boolean mIsDownshifted = false;
+    private Disposable mWarmStartDisposable = null;
+
+    // usage of the current meeting
+    private UsageSample mWindowStart = null;
+    private final UsageTotals mForeground = new UsageTotals();
+    private final UsageTotals mDownshifted = new UsageTotals();
+
+    public BackgroundMediaPolicy(Context context, MeetingService meetingService) {
+        mMeetingService = meetingService;
+        mRemoteMediaGate = new RemoteMediaGate(meetingService);
+        mBatteryManager = (BatteryManager) context.getSystemService(Context.BATTERY_SERVICE);
+    }
+
+    /**
+     * Starts following the process lifecycle and the meeting, call once from the main thread.
+     */
+    public void start() {
+        mIsForeground = ProcessLifecycleOwner.get().getLifecycle().getCurrentState()
+                .isAtLeast(Lifecycle.State.STARTED);
+        ProcessLifecycleOwner.get().getLifecycle().addObserver(this);
+        mMeetingService.getMeetingState().getRxObservable()
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(state -> onMeetingStateChanged(state.getValue()),
+                        err -> Log.e(TAG, "Error in meeting state subscription " + err.getMessage()));
+        mMeetingService.getContentShareService().getContentShareState().getRxObservable()
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(state -> mRemoteMediaGate.onContentShareStateChanged(),
+                        err -> Log.e(TAG, "Error in content share state subscription " + err.getMessage()));
+    }
+
+    public RemoteMediaGate getRemoteMediaGate() {
+        return mRemoteMediaGate;
+    }
+
+    /**
+     * @return one report per meeting, on the main thread.
+     */
+    public Observable<Report> getReports() {
+        return mReports;
+    }
+
+    @Override
+    public void onStateChanged(@NonNull LifecycleOwner source, @NonNull Lifecycle.Event event) {
+        if (event == Lifecycle.Event.ON_START) {
+            mIsForeground = true;
+            mHandler.removeCallbacks(mDownshift);
+            if (mIsDownshifted) {
+                restore();
+            }
+        } else if (event == Lifecycle.Event.ON_STOP) {
+            mIsForeground = false;
+            if (mIsInMeeting) {
+                mHandler.postDelayed(mDownshift, BACKGROUND_GRACE_MS);
+            }
+        }
+    }
+
+    private void onMeetingStateChanged(MeetingService.MeetingState state) {
+        boolean isInMeeting = state instanceof MeetingService.MeetingState.Connected
+                || state instanceof MeetingService.MeetingState.Reconnecting;
+        if (isInMeeting == mIsInMeeting) {
+            return;
+        }
+        mIsInMeeting = isInMeeting;
+        if (isInMeeting) {
+            mForeground.clear();
+            mDownshifted.clear();
+            mWindowStart = UsageSample.take(mBatteryManager);
+            if (!mIsForeground) {
+                mHandler.postDelayed(mDownshift, BACKGROUND_GRACE_MS);
+            }
+        } else {
+            mHandler.removeCallbacks(mDownshift);
+            disposeWarmStart();
+            closeWindow();
+            mIsDownshifted = false;
+            mRemoteMediaGate.reset();
+            Report report = new Report(mForeground, mDownshifted);
+            Log.i(TAG, report.toString());
+            mReports.onNext(report);
+        }
+    }
+
+    private void downshift() {
+        if (!mIsInMeeting || mIsForeground || mIsDownshifted) {
+            return;
+        }
+        closeWindow();
+        mIsDownshifted = true;
+        disposeWarmStart();
+        mRemoteMediaGate.setRemoteVideoMuted(RemoteMediaGate.Reason.BACKGROUND, true);
+        mRemoteMediaGate.setContentMuted(RemoteMediaGate.Reason.BACKGROUND, true);
+    }
+
+    private void restore() {
+        closeWindow();
+        mIsDownshifted = false;
+        mRemoteMediaGate.setRemoteVideoMuted(RemoteMediaGate.Reason.BACKGROUND, false);
+        mRemoteMediaGate.setContentMuted(RemoteMediaGate.Reason.BACKGROUND, false);
+        if (!mRemoteMediaGate.isRemoteVideoMuted()) {
+            watchWarmStart();
+        }
+    }
+
+    /**
+     * Logs how long remote video took to come back, warns when over budget.
+     */
+    private void watchWarmStart() {
+        long restoredAt = SystemClock.elapsedRealtime();
+        mWarmStartDisposable = mMeetingService.getVideoState().subscribeOnUI(videoState -> {
+            if (videoState instanceof MeetingService.VideoState.Active) {
+                long elapsed = SystemClock.elapsedRealtime() - restoredAt;
+                if (elapsed > WARM_START_BUDGET_MS) {
+                    Log.w(TAG, "Remote video restored in " + elapsed + " ms, budget is " + WARM_START_BUDGET_MS);
+                } else {
+                    Log.i(TAG, "Remote video restored in " + elapsed + " ms");
+                }
+                disposeWarmStart();
+            }
+            return Unit.INSTANCE;
+        }, err -> {
+            Log.e(TAG, "Error in video state subscription " + err.getMessage());
+            return Unit.INSTANCE;
+        });
+    }
+
+    private void disposeWarmStart() {
+        if (mWarmStartDisposable != null) {
+            mWarmStartDisposable.dispose();
+            mWarmStartDisposable = null;
+        }
+    }
+
+    /**
+     * Adds the usage since the last window change to the foreground or downshifted totals.
+     */
+    private void closeWindow() {
+        if (mWindowStart == null) {
+            return;
+        }
+        UsageSample now = UsageSample.take(mBatteryManager);
+        (mIsDownshifted ? mDownshifted : mForeground).add(mWindowStart, now);
+        mWindowStart = now;
+    }
+
+    private static final class UsageSample {
+        final long mElapsedMs;
+        final long mCpuMs;
+        final long mRxBytes;
+        final long mChargeMicroAh;
+
+        private UsageSample(long elapsedMs, long cpuMs, long rxBytes, long chargeMicroAh) {
+            mElapsedMs = elapsedMs;
+            mCpuMs = cpuMs;
+            mRxBytes = rxBytes;
+            mChargeMicroAh = chargeMicroAh;
+        }
+
+        static UsageSample take(BatteryManager batteryManager) {
+            return new UsageSample(SystemClock.elapsedRealtime(), Process.getElapsedCpuTime(),
+                    TrafficStats.getUidRxBytes(Process.myUid()),
+                    batteryManager.getLongProperty(BatteryManager.BATTERY_PROPERTY_CHARGE_COUNTER));
+        }
+    }
+
+    private static final class UsageTotals {
+        long mDurationMs;
+        long mCpuMs;
+        long mRxBytes;
+        long mDischargeMicroAh;
+        boolean mIsChargeValid = true;
+
+        void add(UsageSample from, UsageSample to) {
+            mDurationMs += to.mElapsedMs - from.mElapsedMs;
+            mCpuMs += to.mCpuMs - from.mCpuMs;
+            mRxBytes += Math.max(0, to.mRxBytes - from.mRxBytes);
+            // the counter is unsupported on some devices and goes up while charging
+            if (from.mChargeMicroAh <= 0 || to.mChargeMicroAh <= 0 || to.mChargeMicroAh > from.mChargeMicroAh) {
+                mIsChargeValid = false;
+            } else {
+                mDischargeMicroAh += from.mChargeMicroAh - to.mChargeMicroAh;
+            }
+        }
+
+        void clear() {
+            mDurationMs = 0;
+            mCpuMs = 0;
+            mRxBytes = 0;
+            mDischargeMicroAh = 0;
+            mIsChargeValid = true;
+        }
+    }
+
+    /**
+     * Savings of one meeting, estimated as the foreground rate over the downshifted time minus what was used.
+     */
+    public static final class Report {
+        private final long mForegroundMs;
+        private final long mDownshiftedMs;
+        private final long mCpuMsSaved;
+        private final long mRxBytesSaved;
+        private final long mChargeMicroAhSaved;
+
+        private Report(UsageTotals foreground, UsageTotals downshifted) {
+            mForegroundMs = foreground.mDurationMs;
+            mDownshiftedMs = downshifted.mDurationMs;
+            mCpuMsSaved = saved(foreground.mCpuMs, foreground.mDurationMs, downshifted.mCpuMs,
+                    downshifted.mDurationMs);
+            mRxBytesSaved = saved(foreground.mRxBytes, foreground.mDurationMs, downshifted.mRxBytes,
+                    downshifted.mDurationMs);
+            mChargeMicroAhSaved = foreground.mIsChargeValid && downshifted.mIsChargeValid
+                    ? saved(foreground.mDischargeMicroAh, foreground.mDurationMs, downshifted.mDischargeMicroAh,
+                    downshifted.mDurationMs)
+                    : -1;
+        }
+
+        private static long saved(long foregroundUsage, long foregroundMs, long downshiftedUsage, long downshiftedMs) {
+            if (foregroundMs <= 0 || downshiftedMs <= 0) {
+                return 0;
+            }
+            return Math.max(0, foregroundUsage * downshiftedMs / foregroundMs - downshiftedUsage);
+        }
+
+        public long getDownshiftedMs() {
+            return mDownshiftedMs;
+        }
+
+        public long getCpuMsSaved() {
+            return mCpuMsSaved;
+        }
+
+        public long getRxBytesSaved() {
+            return mRxBytesSaved;
+        }
+
+        /**
+         * @return -1 if the battery charge could not be measured, e.g. the device was charging.
+         */
+        public long getChargeMicroAhSaved() {
+            return mChargeMicroAhSaved;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "Foreground %d ms, downshifted %d ms, saved cpu %d ms, rx %d bytes, charge %d uAh",
+                    mForegroundMs, mDownshiftedMs, mCpuMsSaved, mRxBytesSaved, mChargeMicroAhSaved);
+        }
+    }
+}
@@ -6,6 +6,8 @@ package com.bluejeans.android.sdksample;
 
 import android.content.res.Configuration;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -15,6 +17,7 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
+import androidx.lifecycle.Lifecycle;
 import androidx.viewpager2.widget.ViewPager2;
 import com.bluejeans.android.sdksample.viewpager.ScreenSlidePagerAdapter;
 import com.bluejeans.bluejeanssdk.meeting.MeetingService;
@@ -26,14 +29,23 @@ import kotlin.Unit;
 
 /**
  * A InMeeting fragment responsible for showing remote video & remote content share.
+ * Only the stream of the selected page is received, the other one is muted through the {@link RemoteMediaGate} once
+ * the pager has settled for {@link #HIDDEN_PAGE_MUTE_DELAY_MS}. Both streams are unmuted as soon as the user starts
+ * dragging, so the next keyframe is already on its way when the other page comes into view.
  */
 public class InMeetingFragment extends Fragment {
 
     private static final String TAG = "InMeetingFragment";
+    private static final long HIDDEN_PAGE_MUTE_DELAY_MS = 500;
+    private static final int PAGE_REMOTE_VIDEO = 0;
+    private static final int PAGE_REMOTE_CONTENT = 1;
 
     private final MeetingService mMeetingService = SampleApplication.getBlueJeansSDK().getMeetingService();
     private final CompositeDisposable mDisposable = new CompositeDisposable();
     private final PagerChangeCallback mPagerCallBackListener = new PagerChangeCallback();
+    private final RemoteMediaGate mRemoteMediaGate = SampleApplication.getBackgroundMediaPolicy().getRemoteMediaGate();
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final Runnable mMuteHiddenPage = this::muteHiddenPage;
     private MeetingService.VideoState mVideoState;
     private boolean mIsRemoteContentAvailable;
     private ViewPager2 mViewPager;
@@ -79,16 +91,73 @@ public class InMeetingFragment extends Fragment {
         mViewPager.setCurrentItem(0);
     }
 
+    @Override
+    public void onPictureInPictureModeChanged(boolean isInPictureInPictureMode) {
+        super.onPictureInPictureModeChanged(isInPictureInPictureMode);
+        // the picture-in-picture window only shows the active speaker
+        mTabLayout.setVisibility(isInPictureInPictureMode ? View.GONE : View.VISIBLE);
+        mViewPager.setUserInputEnabled(!isInPictureInPictureMode);
+        if (isInPictureInPictureMode) {
+            mViewPager.setCurrentItem(PAGE_REMOTE_VIDEO, false);
+        }
+    }
+
+    @Override
+    public void onStart() {
+        super.onStart();
+        scheduleHiddenPageMute();
+    }
+
+    @Override
+    public void onStop() {
+        super.onStop();
+        // the background policy takes over from here
+        unmuteHiddenPage();
+    }
+
     private class PagerChangeCallback extends ViewPager2.OnPageChangeCallback {
         @Override
         public void onPageSelected(int position) {
             super.onPageSelected(position);
-            if (position == 0) {
+            if (position == PAGE_REMOTE_VIDEO) {
                 handleVideoState();
-            } else if (position == 1) {
+            } else if (position == PAGE_REMOTE_CONTENT) {
                 handleRemoteContentState();
             }
+            if (mViewPager.getScrollState() == ViewPager2.SCROLL_STATE_IDLE) {
+                scheduleHiddenPageMute();
+            }
         }
+
+        @Override
+        public void onPageScrollStateChanged(int state) {
+            super.onPageScrollStateChanged(state);
+            if (state == ViewPager2.SCROLL_STATE_DRAGGING) {
+                unmuteHiddenPage();
+            } else if (state == ViewPager2.SCROLL_STATE_IDLE) {
+                scheduleHiddenPageMute();
+            }
+        }
+    }
+
+    private void scheduleHiddenPageMute() {
+        mHandler.removeCallbacks(mMuteHiddenPage);
+        mHandler.postDelayed(mMuteHiddenPage, HIDDEN_PAGE_MUTE_DELAY_MS);
+    }
+
+    private void muteHiddenPage() {
+        if (mViewPager == null || !getLifecycle().getCurrentState().isAtLeast(Lifecycle.State.STARTED)) {
+            return;
+        }
+        boolean isContentSelected = mViewPager.getCurrentItem() == PAGE_REMOTE_CONTENT;
+        mRemoteMediaGate.setRemoteVideoMuted(RemoteMediaGate.Reason.PAGE_HIDDEN, isContentSelected);
+        mRemoteMediaGate.setContentMuted(RemoteMediaGate.Reason.PAGE_HIDDEN, !isContentSelected);
+    }
+
+    private void unmuteHiddenPage() {
+        mHandler.removeCallbacks(mMuteHiddenPage);
+        mRemoteMediaGate.setRemoteVideoMuted(RemoteMediaGate.Reason.PAGE_HIDDEN, false);
+        mRemoteMediaGate.setContentMuted(RemoteMediaGate.Reason.PAGE_HIDDEN, false);
     }
 
     private void subscribeForVideoState() {
@@ -167,6 +236,7 @@ public class InMeetingFragment extends Fragment {
     @Override
     public void onDestroyView() {
         super.onDestroyView();
+        mHandler.removeCallbacks(mMuteHiddenPage);
         mViewPager.unregisterOnPageChangeCallback(mPagerCallBackListener);
     }
 }
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2021 Blue Jeans Network, Inc. All rights reserved.
+ */
+package com.bluejeans.android.sdksample;
+
+/**
+ * Position on a ladder of levels, 0 being the cheapest. The level is the ceiling lowered by the steps taken, steps
+ * never go past the ceiling, so every step down that is taken changes the level.
+ * Not thread safe.
+ */
+final class LadderPosition {
+    private int mCeiling;
+    private int mSteps = 0;
+
+    LadderPosition(int ceiling) {
+        mCeiling = Math.max(0, ceiling);
+    }
+
+    /**
+     * Steps beyond a lowered ceiling are dropped, they could not be seen below it.
+     */
+    void setCeiling(int ceiling) {
+        mCeiling = Math.max(0, ceiling);
+        mSteps = Math.min(mSteps, mCeiling);
+    }
+
+    /**
+     * @param delta positive to step down, negative to step up.
+     * @return true if the level changed.
+     */
+    boolean step(int delta) {
+        int steps = Math.max(0, Math.min(mCeiling, mSteps + delta));
+        if (steps == mSteps) {
+            return false;
+        }
+        mSteps = steps;
+        return true;
+    }
+
+    int getLevel() {
+        return mCeiling - mSteps;
+    }
+
+    int getSteps() {
+        return mSteps;
+    }
+
+    void reset() {
+        mSteps = 0;
+    }
+}
@@ -4,19 +4,32 @@
 package com.bluejeans.android.sdksample;
 
 import com.bjnclientcore.inmeeting.contentshare.ContentShareType;
+import com.bluejeans.android.sdksample.camera.CameraSwitcher;
+import com.bluejeans.android.sdksample.camera.CameraZoomController;
+import com.bluejeans.android.sdksample.camera.CaptureProfilePolicy;
+import com.bluejeans.android.sdksample.captions.ClosedCaptionPipeline;
+import com.bluejeans.android.sdksample.captions.TranscriptRecorder;
 import com.bluejeans.android.sdksample.dialog.WaitingRoomDialog;
 import com.bluejeans.android.sdksample.menu.MenuFragment;
 import com.bluejeans.android.sdksample.menu.MenuFragment.IMenuCallback;
 import com.bluejeans.android.sdksample.menu.adapters.AudioDeviceAdapter;
 import com.bluejeans.android.sdksample.menu.adapters.VideoDeviceAdapter;
 import com.bluejeans.android.sdksample.menu.adapters.VideoLayoutAdapter;
+import com.bluejeans.android.sdksample.participantlist.ActiveSpeakerTracker;
+import com.bluejeans.android.sdksample.participantlist.ParticipantEvent;
+import com.bluejeans.android.sdksample.participantlist.ParticipantEventSource;
 import com.bluejeans.android.sdksample.participantlist.ParticipantListFragment;
+import com.bluejeans.android.sdksample.participantlist.ParticipantRoster;
+import com.bluejeans.android.sdksample.utils.FrameDropCounter;
+import com.bluejeans.android.sdksample.utils.LogUploader;
+import com.bluejeans.android.sdksample.utils.MediaFootprint;
+import com.bluejeans.android.sdksample.utils.SubscriptionRegistry;
 import com.bluejeans.bluejeanssdk.devices.AudioDevice;
 import com.bluejeans.bluejeanssdk.devices.VideoDevice;
 import com.bluejeans.bluejeanssdk.devices.VideoDeviceService;
 import com.bluejeans.bluejeanssdk.logging.LoggingService;
 import com.bluejeans.bluejeanssdk.meeting.ClosedCaptioningService;
-import com.bluejeans.bluejeanssdk.meeting.ContentShareAvailability;
+import com.bluejeans.bluejeanssdk.meeting.ContentShareEvent;
 import com.bluejeans.bluejeanssdk.meeting.ContentShareState;
 import com.bluejeans.bluejeanssdk.meeting.MeetingService;
 import com.bluejeans.bluejeanssdk.meeting.ParticipantsService;
@@ -25,28 +38,30 @@ import com.bluejeans.bluejeanssdk.permission.PermissionService;
 
 import android.annotation.SuppressLint;
 import android.app.Activity;
+import android.app.PictureInPictureParams;
 import android.content.Context;
 import android.content.Intent;
 import android.content.res.Configuration;
-import android.graphics.Rect;
-import android.hardware.camera2.CameraAccessException;
-import android.hardware.camera2.CameraCharacteristics;
-import android.hardware.camera2.CameraManager;
-import android.hardware.camera2.CaptureRequest;
 import android.media.projection.MediaProjectionManager;
 import android.os.Bundle;
+import android.os.SystemClock;
 import android.text.Editable;
 import android.text.TextUtils;
 import android.text.TextWatcher;
 import android.util.Log;
+import android.util.Rational;
 import android.view.View;
 import android.view.WindowManager;
 import android.view.inputmethod.InputMethodManager;
+import android.widget.AdapterView;
+import android.widget.ArrayAdapter;
 import android.widget.Button;
+import android.widget.CheckBox;
 import android.widget.EditText;
 import android.widget.ImageView;
 import android.widget.ProgressBar;
 import android.widget.SeekBar;
+import android.widget.Spinner;
 import android.widget.TextView;
 import android.widget.Toast;
 import androidx.activity.result.ActivityResultLauncher;
@@ -58,11 +73,15 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.constraintlayout.widget.ConstraintLayout;
 import androidx.fragment.app.Fragment;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.disposables.CompositeDisposable;
+import io.reactivex.rxjava3.disposables.Disposable;
+import java.io.File;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import kotlin.Unit;
 
 
@@ -70,17 +89,25 @@ import static com.bluejeans.android.sdksample.utils.AudioDeviceHelper.getAudioDe
 
 public class MainActivity extends AppCompatActivity implements View.OnClickListener {
     public static final String TAG = "MainActivity";
+    private static final long FOOTPRINT_SETTLE_MS = 3_000;
+    private static final int ZOOM_SEEK_STEPS = 100;
 
     private final String appVersionString = "v" + SampleApplication.getBlueJeansSDK().getVersion();
     private final PermissionService mPermissionService = SampleApplication.getBlueJeansSDK().getPermissionService();
     private final LoggingService mLoggingService = SampleApplication.getBlueJeansSDK().getLoggingService();
+    private final LogUploader mLogUploader = new LogUploader(mLoggingService);
     private final MeetingService mMeetingService = SampleApplication.getBlueJeansSDK().getMeetingService();
     private final VideoDeviceService mVideoDeviceService = SampleApplication.getBlueJeansSDK().getVideoDeviceService();
+    private final ParticipantEventSource mParticipantEventSource = new ParticipantEventSource(mMeetingService.getParticipantsService());
+    private final ParticipantRoster mParticipantRoster = new ParticipantRoster();
+    private final ActiveSpeakerTracker mActiveSpeakerTracker = new ActiveSpeakerTracker(mMeetingService.getParticipantsService());
+    private final MeetingController mMeetingController = new MeetingController(mMeetingService);
 
     private final CompositeDisposable mDisposable = new CompositeDisposable();
     private final CompositeDisposable mInMeetingDisposable = new CompositeDisposable();
+    private final SubscriptionRegistry mInMeetingSubscriptions = new SubscriptionRegistry("InMeeting", this);
     private boolean mIsAudioMuted, mIsVideoMuted;
-    private boolean mIsRemoteContentAvailable;
+    private MeetingUiState mMeetingUiState = null;
 
     //View IDs
     private ConstraintLayout mSelfView, mJoinLayout, mWaitingRoomLayout;
@@ -95,6 +122,15 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
     private ImageView mCameraSettings;
     private MenuFragment mBottomSheetFragment;
     private ParticipantListFragment mParticipantListFragment = null;
+    private ClosedCaptionPipeline mClosedCaptionPipeline;
+    private TranscriptRecorder mTranscriptRecorder;
+    private AdaptiveGalleryPolicy mAdaptiveGalleryPolicy;
+    private MeetingTelemetry mMeetingTelemetry;
+    private CameraZoomController mCameraZoomController;
+    private CameraSwitcher mCameraSwitcher;
+    private CaptureProfilePolicy mCaptureProfilePolicy;
+    private NetworkQualityMonitor mNetworkQualityMonitor;
+    private Disposable mTranscriptDisposable = null;
 
     //For alter dialog
     private VideoDeviceAdapter mVideoDeviceAdapter = null;
@@ -105,13 +141,15 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
     private AlertDialog mVideoDeviceDialog = null;
     private AlertDialog mUploadLogsDialog = null;
     private AlertDialog mCameraSettingsDialog = null;
+    private CameraSwitcher.SwitchTiming mLastCameraSwitchTiming = null;
     private ProgressBar mProgressBar = null;
-    private int mZoomScaleFactor = 1; // default value of 1, no zoom to start with
-    private boolean mIsInWaitingRoom = false;
     private boolean mIsWaitingRoomEnabled = false;
-    private boolean mIsScreenShareInProgress = false;
-    private boolean mIsReconnecting = false;
-    private boolean mIsCallInProgress = false;
+    private boolean mIsRosterUpdatePending = false;
+    private boolean mIsTranscriptEnabled = false;
+    private long mContentShareRequestedAt = 0;
+    // the screen capture consent is our own activity, leaving for it must not enter picture-in-picture
+    private boolean mIsScreenShareRequestPending = false;
+    private long mContentShareStartedAt = 0;
 
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
@@ -119,6 +157,16 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
         setContentView(R.layout.activity_main);
         // permission service needs activity to be registered before calling request for permissions
         mPermissionService.register(this);
+        // one frame metrics listener for everything that watches dropped frames
+        FrameDropCounter frameDropCounter = new FrameDropCounter(getWindow());
+        mAdaptiveGalleryPolicy = new AdaptiveGalleryPolicy(getApplicationContext(), mMeetingService, frameDropCounter);
+        mMeetingTelemetry = new MeetingTelemetry(frameDropCounter);
+        mAdaptiveGalleryPolicy.setConstrained(AdaptiveGalleryPolicy.Constraint.MULTI_WINDOW, isInMultiWindowMode());
+        mCameraZoomController = new CameraZoomController(getApplicationContext(), mVideoDeviceService);
+        mCameraSwitcher = new CameraSwitcher(mVideoDeviceService, mCameraZoomController, true);
+        mCaptureProfilePolicy = new CaptureProfilePolicy(getApplicationContext(), mVideoDeviceService);
+        mNetworkQualityMonitor = new NetworkQualityMonitor(getApplicationContext(), () -> !mIsVideoMuted,
+                this::isReceivingRemoteVideo);
         initViews();
         checkCameraPermissionAndStartSelfVideo();
         activateSDKSubscriptions();
@@ -136,20 +184,61 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
     }
 
     @Override
-    protected void onResume() {
-        super.onResume();
-        if (!mIsScreenShareInProgress) {
-            MeetingService.MeetingState meetingState = mMeetingService.getMeetingState().getValue();
-            handleMeetingState(meetingState);
+    protected void onUserLeaveHint() {
+        super.onUserLeaveHint();
+        // while sharing the screen a video window on top would be captured too, every shared frame would differ
+        // and static content could never be sent at a low rate
+        if (mMeetingUiState != null && mMeetingUiState.isInMeeting() && !mMeetingUiState.isSharingContent()
+                && !mIsScreenShareRequestPending && !isInPictureInPictureMode()) {
+            measureMediaFootprint("fullscreen", 0);
+            enterPictureInPictureMode(new PictureInPictureParams.Builder()
+                    .setAspectRatio(new Rational(16, 9))
+                    .build());
         }
     }
 
+    @Override
+    public void onPictureInPictureModeChanged(boolean isInPictureInPictureMode, Configuration newConfig) {
+        super.onPictureInPictureModeChanged(isInPictureInPictureMode, newConfig);
+        Log.i(TAG, "Picture-in-picture " + isInPictureInPictureMode);
+        // a single active speaker stream, content and the other gallery streams are not decoded
+        mAdaptiveGalleryPolicy.setConstrained(AdaptiveGalleryPolicy.Constraint.PICTURE_IN_PICTURE,
+                isInPictureInPictureMode);
+        SampleApplication.getBackgroundMediaPolicy().getRemoteMediaGate()
+                .setContentMuted(RemoteMediaGate.Reason.PICTURE_IN_PICTURE, isInPictureInPictureMode);
+        mControlPanelContainer.setVisibility(isInPictureInPictureMode ? View.GONE : View.VISIBLE);
+        mSelfView.setVisibility(isInPictureInPictureMode ? View.GONE : View.VISIBLE);
+        measureMediaFootprint(isInPictureInPictureMode ? "pip" : "fullscreen", FOOTPRINT_SETTLE_MS);
+    }
+
+    /**
+     * Logs decoder count and memory once the streams of the new mode have settled.
+     */
+    private void measureMediaFootprint(String label, long delayMs) {
+        mInMeetingDisposable.add(Single.timer(delayMs, TimeUnit.MILLISECONDS)
+                .flatMap(ignored -> MediaFootprint.measure(label))
+                .subscribe(footprint -> Log.i(TAG, footprint.toString()),
+                        err -> Log.e(TAG, "Error measuring media footprint " + err.getMessage())));
+    }
+
+    @Override
+    public void onMultiWindowModeChanged(boolean isInMultiWindowMode, Configuration newConfig) {
+        super.onMultiWindowModeChanged(isInMultiWindowMode, newConfig);
+        mAdaptiveGalleryPolicy.setConstrained(AdaptiveGalleryPolicy.Constraint.MULTI_WINDOW, isInMultiWindowMode);
+    }
+
     @Override
     protected void onDestroy() {
         mDisposable.dispose();
         mInMeetingDisposable.dispose();
+        mAdaptiveGalleryPolicy.stop();
+        mMeetingTelemetry.stop();
+        mNetworkQualityMonitor.stop();
+        mCameraZoomController.release();
+        mCameraSwitcher.release();
+        mCaptureProfilePolicy.stop();
+        mTranscriptRecorder.release();
         mBottomSheetFragment = null;
-        mIsCallInProgress = false;
         super.onDestroy();
     }
 
@@ -187,6 +276,7 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
                 toggleVideoMuteUnMuteView(mIsVideoMuted);
                 break;
             case R.id.imgRoster:
+                mParticipantListFragment.updateMeetingList(mParticipantRoster.getSnapshot());
                 getSupportFragmentManager()
                         .beginTransaction()
                         .replace(R.id.rosterContainer, mParticipantListFragment)
@@ -195,11 +285,10 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
                 break;
             case R.id.imgScreenShare:
                 if (mMeetingService.getContentShareService().getContentShareState().getValue() instanceof ContentShareState.Stopped) {
-                    mIsScreenShareInProgress = true;
                     MediaProjectionManager mediaProjectionManager = (MediaProjectionManager) getSystemService(Context.MEDIA_PROJECTION_SERVICE);
+                    mIsScreenShareRequestPending = true;
                     activityResultLauncher.launch(mediaProjectionManager.createScreenCaptureIntent());
                 } else {
-                    mIsScreenShareInProgress = false;
                     mMeetingService.getContentShareService().stopContentShare();
                 }
                 break;
@@ -259,25 +348,21 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
         if (!TextUtils.isEmpty(comments)) {
             String userName = (TextUtils.isEmpty(mEtName.getText().toString()) ? "Guest"
                     : mEtName.getText().toString());
+            // the last minutes of the meeting end up in the uploaded log
+            mMeetingTelemetry.logSummary();
             mDisposable.add(
-                    mLoggingService.uploadLog(comments, userName)
-                            .subscribeOn(Schedulers.io())
-                            .observeOn(AndroidSchedulers.mainThread())
+                    mLogUploader.upload(comments, userName)
                             .subscribe(result ->
-                                    {
-                                        Log.i(TAG, "Log uploaded successfully " + result);
-                                        if (result != LoggingService.LogUploadResult.Success.INSTANCE) {
-                                            showToastMessage(getString(R.string.upload_logs_failure));
-                                        } else {
-                                            showToastMessage(getString(R.string.upload_logs_success));
-                                        }
-                                        mUploadLogsDialog.dismiss();
-                                    },
-                                    error -> {
-                                        Log.e(TAG, "Error while uploading logs");
-                                        mProgressBar.setVisibility(View.GONE);
-                                        showToastMessage(getString(R.string.upload_logs_failure));
-                                    }));
+                            {
+                                Log.i(TAG, "Log upload result " + result);
+                                mProgressBar.setVisibility(View.GONE);
+                                if (result != LoggingService.LogUploadResult.Success.INSTANCE) {
+                                    showToastMessage(getString(R.string.upload_logs_failure));
+                                } else {
+                                    showToastMessage(getString(R.string.upload_logs_success));
+                                }
+                                mUploadLogsDialog.dismiss();
+                            }));
         } else {
             showToastMessage("Please enter your comments.");
         }
@@ -289,9 +374,12 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
 
     private final ActivityResultLauncher<Intent> activityResultLauncher = registerForActivityResult(
             new ActivityResultContracts.StartActivityForResult(), result -> {
+                mIsScreenShareRequestPending = false;
                 if (result.getResultCode() == Activity.RESULT_OK) {
                     Intent data = result.getData();
                     if (data != null) {
+                        mContentShareRequestedAt = SystemClock.elapsedRealtime();
+                        // Screen is the only content type, the SDK picks the encoder profile for the captured frames
                         mMeetingService.getContentShareService()
                                 .startContentShare(new ContentShareType.Screen(data));
                     }
@@ -305,23 +393,25 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
         subscribeForCurrentAudioDevice();
         subscribeForVideoDevices();
         subscribeForCurrentVideoDevice();
+        subscribeForLogUploadState();
+        subscribeForCameraSwitchTimings();
     }
 
     private void activateInMeetingSubscriptions() {
         subscribeForVideoMuteStatus();
         subscribeForAudioMuteStatus();
         subscribeForVideoLayout();
+        subscribeForGalleryTransitions();
         subscribeForParticipants();
-        subscribeForContentShareState();
-        subscribeForContentShareAvailability();
-        subscribeForRemoteContentState();
         subscribeForContentShareEvents();
         subscribeForClosedCaptionText();
         subscribeForClosedCaptionState();
+        startTranscriptRecording();
         subscribeToActiveSpeaker();
         subscribeForModeratorWaitingRoomEvents();
-
-        mIsCallInProgress = true;
+        mMeetingTelemetry.start();
+        mCaptureProfilePolicy.start();
+        subscribeForNetworkQuality();
     }
     
     private void checkCameraPermissionAndStartSelfVideo() {
@@ -342,6 +432,7 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
     }
 
     private void startSelfVideo() {
+        // the SDK owns the capture session and the self view surface, how frames reach the encoder is up to it
         getSupportFragmentManager()
                 .beginTransaction()
                 .replace(R.id.selfViewFrame, mVideoDeviceService.getSelfVideoFragment())
@@ -393,34 +484,43 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
     }
 
     private void endMeeting() {
-        mIsReconnecting = false;
-        if (mIsInWaitingRoom) {
-            mIsInWaitingRoom = false;
-            showWaitingRoomUI();
-        } else {
-            showOutOfMeetingView();
-        }
+        showMeetingEndedView();
+        releaseMeeting();
+    }
+
+    private void showMeetingEndedView() {
+        showOutOfMeetingView();
+        showWaitingRoomUI(false);
 
         if (mCameraSettingsDialog != null)
             mCameraSettingsDialog.dismiss();
-        mIsRemoteContentAvailable = false;
-        mIsCallInProgress = false;
+    }
+
+    private void releaseMeeting() {
         OnGoingMeetingService.stopService(this);
+        stopInMeetingWork();
+        if (BuildConfig.DEBUG) {
+            mInMeetingSubscriptions.logStats();
+        }
         mInMeetingDisposable.clear();
+        mInMeetingSubscriptions.clear();
+        mParticipantRoster.clear();
+    }
+
+    private void stopInMeetingWork() {
+        stopTranscriptRecording();
+        mAdaptiveGalleryPolicy.stop();
+        mMeetingTelemetry.stop();
+        mCaptureProfilePolicy.stop();
+        mNetworkQualityMonitor.stop();
     }
 
     // Return Unit.INSTANCE; is needed for a kotlin java interop
     // Refer https://developer.android.com/kotlin/interop#lambda_arguments for more details
     private void subscribeForMeetingStatus() {
-        mDisposable.add(
-                mMeetingService.getMeetingState().getRxObservable().observeOn(AndroidSchedulers.mainThread())
-                    .subscribe(state -> {
-                        Log.i(TAG, "State: " + state);
-                        handleMeetingState(state);
-                    }, err -> {
-                        Log.e(TAG, err.getMessage());
-                    })
-        );
+        // the render may skip states within a frame, side effects must see every one
+        mDisposable.add(mMeetingController.observeTransitions(this::onMeetingUiStateChanged));
+        mDisposable.add(mMeetingController.render(this::renderMeetingUiState));
     }
 
     private void subscribeToWaitingRoomEvents() {
@@ -444,77 +544,88 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
         );
     }
 
-    private void subscribeForRemoteContentState() {
-        mInMeetingDisposable.add(mMeetingService.getContentShareService().getReceivingRemoteContent().subscribeOnUI(isReceivingRemoteContent -> {
-            if (isReceivingRemoteContent != null) {
-                mIsRemoteContentAvailable = isReceivingRemoteContent;
-                if (isReceivingRemoteContent) {
-                    showInMeetingView();
-                } else {
-                    handleRemoteContentState();
-                }
+    private void subscribeForAudioMuteStatus() {
+        mInMeetingSubscriptions.observe("audioMuted", mMeetingService.getAudioMuted(), isMuted -> {
+            if (isMuted != null) {
+                // This could be due to local mute or remote mute
+                toggleAudioMuteUnMuteView(isMuted);
             }
-            return Unit.INSTANCE;
-        }, err -> {
-            Log.e(TAG, "Error in remote content subscription " + err.getMessage());
-            return Unit.INSTANCE;
-        }));
+            Log.i(TAG, " Audio Mute state " + isMuted);
+        });
     }
 
-    private void subscribeForAudioMuteStatus() {
-        mInMeetingDisposable.add(mMeetingService.getAudioMuted().subscribe(
-                isMuted -> {
-                    if (isMuted != null) {
-                        // This could be due to local mute or remote mute
-                        toggleAudioMuteUnMuteView(isMuted);
-                    }
-                    Log.i(TAG, " Audio Mute state " + isMuted);
-                    return Unit.INSTANCE;
-                },
-                err -> {
-                    Log.e(TAG, "Error in audio mute status subscription");
-                    return Unit.INSTANCE;
-                }));
+    private void subscribeForVideoMuteStatus() {
+        mInMeetingSubscriptions.observe("videoMuted", mMeetingService.getVideoMuted(), isMuted -> {
+            if (isMuted != null) {
+                // This could be due to local mute or remote mute
+                toggleVideoMuteUnMuteView(isMuted);
+            }
+            Log.i(TAG, " Video Mute state " + isMuted);
+        });
     }
 
-    private void subscribeForVideoMuteStatus() {
-        mInMeetingDisposable.add(mMeetingService.getVideoMuted().subscribeOnUI(
-                isMuted -> {
-                    if (isMuted != null) {
-                        // This could be due to local mute or remote mute
-                        toggleVideoMuteUnMuteView(isMuted);
-                    }
+    private void subscribeForVideoLayout() {
+        mInMeetingSubscriptions.observe("videoLayout", mMeetingService.getVideoLayout(), videoLayout -> {
+            if (videoLayout != null) {
+                String videoLayoutName = null;
+                if (videoLayout.equals(MeetingService.VideoLayout.Speaker.INSTANCE)) {
+                    videoLayoutName = getString(R.string.speaker_view);
+                } else if (videoLayout.equals(MeetingService.VideoLayout.Gallery.INSTANCE)) {
+                    videoLayoutName = getString(R.string.gallery_view);
+                } else if (videoLayout.equals(MeetingService.VideoLayout.People.INSTANCE)) {
+                    videoLayoutName = getString(R.string.people_view);
+                }
+                mBottomSheetFragment.updateVideoLayout(videoLayoutName);
+                updateCurrentVideoLayoutForAlertDialog(videoLayoutName);
+            }
+        });
+    }
 
-                    Log.i(TAG, " Video Mute state " + isMuted);
-                    return Unit.INSTANCE;
-                },
-                err -> {
-                    Log.e(TAG, "Error in video mute status subscription " + err.getMessage());
-                    return Unit.INSTANCE;
-                }));
+    private void subscribeForGalleryTransitions() {
+        mInMeetingSubscriptions.observe("galleryTransitions", mAdaptiveGalleryPolicy.getTransitions(), transition -> {
+            if (transition != null && transition.isStepDown()
+                    && transition.getReason() != AdaptiveGalleryPolicy.Reason.CONSTRAINED) {
+                showToastMessage(getString(R.string.video_layout_reduced));
+            }
+        });
+        mAdaptiveGalleryPolicy.start();
     }
 
-    private void subscribeForVideoLayout() {
-        mInMeetingDisposable.add(mMeetingService.getVideoLayout().subscribeOnUI(
-                videoLayout -> {
-                    if (videoLayout != null) {
-                        String videoLayoutName = null;
-                        if (videoLayout.equals(MeetingService.VideoLayout.Speaker.INSTANCE)) {
-                            videoLayoutName = getString(R.string.speaker_view);
-                        } else if (videoLayout.equals(MeetingService.VideoLayout.Gallery.INSTANCE)) {
-                            videoLayoutName = getString(R.string.gallery_view);
-                        } else if (videoLayout.equals(MeetingService.VideoLayout.People.INSTANCE)) {
-                            videoLayoutName = getString(R.string.people_view);
+    private void subscribeForNetworkQuality() {
+        // started first so the listener doesn't see the previous meeting's quality
+        mNetworkQualityMonitor.start();
+        mInMeetingSubscriptions.observe("networkQuality", mNetworkQualityMonitor.getNetworkQuality(),
+                new SubscriptionRegistry.ValueListener<NetworkQualityMonitor.NetworkQuality>() {
+                    private NetworkQualityMonitor.Level mLastUplinkLevel = NetworkQualityMonitor.Level.GOOD;
+
+                    @Override
+                    public void onValue(@Nullable NetworkQualityMonitor.NetworkQuality quality) {
+                        if (quality == null) {
+                            return;
                         }
-                        mBottomSheetFragment.updateVideoLayout(videoLayoutName);
-                        updateCurrentVideoLayoutForAlertDialog(videoLayoutName);
+                        // suggest audio only once per drop, before the meeting has to reconnect
+                        if (quality.getUplinkLevel() == NetworkQualityMonitor.Level.POOR
+                                && mLastUplinkLevel != NetworkQualityMonitor.Level.POOR && !mIsVideoMuted) {
+                            showToastMessage(getString(R.string.network_quality_poor));
+                        }
+                        mLastUplinkLevel = quality.getUplinkLevel();
                     }
-                    return Unit.INSTANCE;
-                },
-                err -> {
-                    Log.e(TAG, "Error in video layout subscription " + err.getMessage());
-                    return Unit.INSTANCE;
-                }));
+                });
+    }
+
+    private boolean isReceivingRemoteVideo() {
+        return mParticipantRoster.hasRemoteVideo()
+                && !SampleApplication.getBackgroundMediaPolicy().getRemoteMediaGate().isRemoteVideoMuted();
+    }
+
+    private void subscribeForLogUploadState() {
+        mDisposable.add(mLogUploader.getState().subscribe(state -> {
+            Log.d(TAG, "Log upload " + state);
+            // tell once, on the first retry after a failure, polling another upload is not a retry
+            if (state.getStatus() == LogUploader.Status.WAITING_FOR_RETRY && state.getAttempt() == 2) {
+                showToastMessage(getString(R.string.upload_logs_retrying));
+            }
+        }));
     }
 
     private void subscribeForCurrentAudioDevice() {
@@ -564,60 +675,63 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
     }
 
     private void subscribeForParticipants() {
-        mInMeetingDisposable.add(mMeetingService.getParticipantsService().getParticipants().subscribeOnUI(
-                participantList -> {
-                    if (mParticipantListFragment != null && participantList != null) {
-                        mParticipantListFragment.updateMeetingList(participantList);
+        // a new subscription restarts the event sequence
+        mParticipantRoster.clear();
+        mInMeetingDisposable.add(mParticipantEventSource.getParticipantEvents()
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(event -> {
+                    if (event instanceof ParticipantEvent.Joined) {
+                        Log.i(TAG, event.getParticipant().getName() + " joined");
+                    } else if (event instanceof ParticipantEvent.Left) {
+                        Log.i(TAG, event.getParticipant().getName() + " left");
                     }
-                    return Unit.INSTANCE;
-                },
-                err -> {
-                    Log.e(TAG, "Error in Participants subscription" + err.getMessage());
-                    return Unit.INSTANCE;
-                }));
-    }
-
-    private void subscribeForContentShareAvailability() {
-        mInMeetingDisposable.add(mMeetingService.getContentShareService().getContentShareAvailability().subscribeOnUI(
-                contentShareAvailability -> {
-                    if (contentShareAvailability instanceof ContentShareAvailability.Available) {
-                        mIvScreenShare.setVisibility(View.VISIBLE);
-                    } else {
-                        mIvScreenShare.setVisibility(View.GONE);
+                    if (mParticipantRoster.apply(event)) {
+                        scheduleRosterUpdate();
                     }
-                    return Unit.INSTANCE;
-                },
-                err -> {
-                    Log.e(TAG, "Error in content share availability" + err.getMessage());
-                    return Unit.INSTANCE;
-                }));
+                }, err -> Log.e(TAG, "Error in Participants subscription" + err.getMessage())));
     }
 
-    private void subscribeForContentShareState() {
-        mInMeetingDisposable.add(mMeetingService.getContentShareService().getContentShareState().subscribeOnUI(
-                contentShareState -> {
-                    if (contentShareState instanceof ContentShareState.Stopped) {
-                        mIvScreenShare.setSelected(false);
-                        MeetingNotificationUtility.updateNotificationMessage(this, getString(R.string.meeting_notification_message));
-                    } else if (contentShareState != null) {
-                        mIvScreenShare.setSelected(true);
-                        MeetingNotificationUtility.updateNotificationMessage(this, getString(R.string.screen_share_notification_message));
-                    }
-                    return Unit.INSTANCE;
-                },
-                err -> {
-                    Log.e(TAG, "Error in content share state subscription" + err.getMessage());
-                    return Unit.INSTANCE;
-                }));
+    /**
+     * Events of one roster change arrive back to back, the visible list is rebuilt once after the whole burst.
+     * While the participant list is not shown nothing is rebuilt, it is refreshed when the list is opened.
+     */
+    private void scheduleRosterUpdate() {
+        if (mIsRosterUpdatePending) {
+            return;
+        }
+        mIsRosterUpdatePending = true;
+        mIvParticipant.post(() -> {
+            mIsRosterUpdatePending = false;
+            if (mParticipantListFragment != null && mParticipantListFragment.isAdded()) {
+                mParticipantListFragment.updateMeetingList(mParticipantRoster.getSnapshot());
+            }
+        });
     }
 
     private void subscribeForContentShareEvents() {
-        mInMeetingDisposable.add(mMeetingService.getContentShareService().getContentShareEvent()
-                .subscribeOn(Schedulers.io())
-                .observeOn(AndroidSchedulers.mainThread())
-                .subscribe(
-                        contentShareEvent -> Log.i(TAG, "Content share event is " + contentShareEvent),
-                        err -> Log.e(TAG, "Error in content share events subscription" + err.getMessage())));
+        // timed as the events arrive, upstream of the registry that holds them back while the activity is stopped
+        mInMeetingSubscriptions.observe("contentShareEvent",
+                mMeetingService.getContentShareService().getContentShareEvent().subscribeOn(Schedulers.io())
+                        .observeOn(AndroidSchedulers.mainThread())
+                        .doOnNext(this::logContentShareTiming),
+                contentShareEvent -> Log.i(TAG, "Content share event is " + contentShareEvent));
+    }
+
+    private void logContentShareTiming(ContentShareEvent contentShareEvent) {
+        long now = SystemClock.elapsedRealtime();
+        if (contentShareEvent instanceof ContentShareEvent.Started) {
+            if (mContentShareRequestedAt != 0) {
+                Log.i(TAG, "Content share started in " + (now - mContentShareRequestedAt) + " ms");
+            }
+            mContentShareStartedAt = now;
+        } else if (contentShareEvent instanceof ContentShareEvent.Stopped
+                || contentShareEvent instanceof ContentShareEvent.Error) {
+            if (mContentShareStartedAt != 0) {
+                Log.i(TAG, "Content share lasted " + (now - mContentShareStartedAt) / 1000 + " s");
+            }
+            mContentShareRequestedAt = 0;
+            mContentShareStartedAt = 0;
+        }
     }
 
     private void subscribeForVideoDevices() {
@@ -626,6 +740,7 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
                         mVideoDeviceAdapter.clear();
                         mVideoDeviceAdapter.addAll(videoDevices);
                         mVideoDeviceAdapter.notifyDataSetChanged();
+                        mCameraSwitcher.prewarm(videoDevices);
                     }
                     return Unit.INSTANCE;
                 },
@@ -635,18 +750,60 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
                 }));
     }
 
+    private void subscribeForCameraSwitchTimings() {
+        mDisposable.add(mCameraSwitcher.getSwitchTimings().subscribe(timing -> {
+            Log.i(TAG, "Camera switch " + timing + (timing.isWithinTarget() ? "" : ", over target"));
+            // shown in the camera settings dialog
+            mLastCameraSwitchTiming = timing;
+        }));
+    }
+
     private void subscribeForClosedCaptionText() {
-        mInMeetingDisposable.add(mMeetingService.getClosedCaptioningService().getClosedCaptionText()
-                .subscribeOn(Schedulers.io())
+        mInMeetingDisposable.add(mClosedCaptionPipeline.start(
+                mMeetingService.getClosedCaptioningService().getClosedCaptionText()));
+    }
+
+    /**
+     * Records finalized captions while the transcript is enabled. The subscription lives as long as the in meeting
+     * ones, so recording carries on through reconnects.
+     */
+    private void startTranscriptRecording() {
+        if (!mIsTranscriptEnabled || mTranscriptDisposable != null) {
+            return;
+        }
+        mTranscriptRecorder.start(mEtEventId.getText().toString());
+        mTranscriptDisposable = mClosedCaptionPipeline.getFinalizedLines().subscribe(
+                line -> mTranscriptRecorder.record(line.getText(), line.getSpeaker()),
+                err -> Log.e(TAG, "Error in finalized captions subscription " + err.getMessage()));
+        mInMeetingDisposable.add(mTranscriptDisposable);
+    }
+
+    private void stopTranscriptRecording() {
+        if (mTranscriptDisposable == null) {
+            return;
+        }
+        // record the caption still being spoken
+        mClosedCaptionPipeline.flush();
+        mInMeetingDisposable.delete(mTranscriptDisposable);
+        mTranscriptDisposable.dispose();
+        mTranscriptDisposable = null;
+        mTranscriptRecorder.stop();
+    }
+
+    private void exportTranscript() {
+        File destination = new File(getExternalFilesDir(null), "transcript.txt");
+        mDisposable.add(mTranscriptRecorder.export(destination)
                 .observeOn(AndroidSchedulers.mainThread())
-                .subscribe(content -> {
-                    mTvClosedCaption.setText(content);
-                }, error -> Log.e(TAG, "Error closed caption subscription " + error)));
+                .subscribe(file -> showToastMessage(getString(R.string.transcript_exported, file.getAbsolutePath())),
+                        err -> {
+                            Log.e(TAG, "Transcript export failed " + err.getMessage());
+                            showToastMessage(getString(R.string.transcript_export_failed));
+                        }));
     }
 
     private void subscribeForClosedCaptionState() {
-        mInMeetingDisposable.add(mMeetingService.getClosedCaptioningService().getClosedCaptioningState().subscribeOnUI(
-                closedCaptioningState -> {
+        mInMeetingSubscriptions.observe("closedCaptioningState",
+                mMeetingService.getClosedCaptioningService().getClosedCaptioningState(), closedCaptioningState -> {
                     if (closedCaptioningState != null) {
                         if (closedCaptioningState == ClosedCaptioningService.
                                 ClosedCaptioningState.Started.INSTANCE) {
@@ -655,77 +812,58 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
                         } else {
                             mBottomSheetFragment.updateClosedCaptionSwitchState(false);
                             mTvClosedCaption.setVisibility(View.GONE);
+                            mClosedCaptionPipeline.flush();
                         }
                     }
-                    return Unit.INSTANCE;
-                }, err -> {
-                    Log.e(TAG, "Error subscribing closed caption event");
-                    return Unit.INSTANCE;
-                }
-        ));
+                });
     }
 
     private void subscribeToActiveSpeaker() {
-        mInMeetingDisposable.add(mMeetingService.getParticipantsService().getActiveSpeaker().getRxObservable().observeOn(AndroidSchedulers.mainThread())
-                .subscribe(participant -> {
-                    if (participant.getValue() != null) {
-                        Log.i(TAG, participant.getValue().getName() + " is the active speaker.");
+        // debounced, crosstalk does not flip the speaker back and forth
+        mInMeetingSubscriptions.observe("activeSpeaker", mActiveSpeakerTracker.getActiveSpeaker(),
+                participant -> {
+                    if (participant != null) {
+                        Log.i(TAG, participant.getName() + " is the active speaker.");
                     } else {
                         Log.e(TAG, "Participant information is missing");
                     }
-                }, err-> {
-                    Log.e(TAG, "Exception while subscribing to active speaker: " + err.getMessage());
-                })
-        );
+                });
     }
     
     private void subscribeForModeratorWaitingRoomEvents() {
         boolean isModerator = SampleApplication.getBlueJeansSDK()
                 .getBlueJeansClient().getMeetingSession().isModerator();
         if (isModerator) {
-            mInMeetingDisposable.add(mMeetingService.getModeratorWaitingRoomService().isWaitingRoomEnabled()
-                    .getRxObservable().observeOn(AndroidSchedulers.mainThread())
-                    .subscribe(
-                            isEnabled -> {
-                                if (isEnabled.getValue() == true) {
-                                    mIsWaitingRoomEnabled = true;
-                                } else {
-                                    mIsWaitingRoomEnabled = false;
-                                }
-                                mBottomSheetFragment = new MenuFragment(mIOptionMenuCallback, mIsWaitingRoomEnabled);
-                            }, err -> {
-                                Log.e(TAG, "Error subscribing to waiting room enabled");
+            mInMeetingSubscriptions.observe("isWaitingRoomEnabled",
+                    mMeetingService.getModeratorWaitingRoomService().isWaitingRoomEnabled(), isEnabled -> {
+                        mIsWaitingRoomEnabled = Boolean.TRUE.equals(isEnabled);
+                        mBottomSheetFragment.updateWaitingRoomEnabled(mIsWaitingRoomEnabled);
+                        // the demote buttons of the roster depend on it
+                        scheduleRosterUpdate();
+                    });
+
+            mInMeetingSubscriptions.observe("waitingRoomParticipantEvents",
+                    mMeetingService.getModeratorWaitingRoomService().getWaitingRoomParticipantEvents(), event -> {
+                        if (event instanceof WaitingRoomParticipantEvent.Added) {
+                            if (((WaitingRoomParticipantEvent.Added) event).getParticipants().size() == 1) {
+                                Log.i(TAG,
+                                        "WAITING_ROOM: " + ((WaitingRoomParticipantEvent.Added) event).getParticipants().get(0).getName() + " has arrived in the waiting room");
+                                showToastMessage(((WaitingRoomParticipantEvent.Added) event).getParticipants().get(0).getName() + " has arrived in the waiting room");
+                            } else if (((WaitingRoomParticipantEvent.Added) event).getParticipants().size() > 1) {
+                                Log.i(TAG, "WAITING_ROOM: " + getString(R.string.multiple_participants_arrived_wr));
+                                showToastMessage(getString(R.string.multiple_participants_arrived_wr));
                             }
-                    ));
-
-            mInMeetingDisposable.add(mMeetingService.getModeratorWaitingRoomService().getWaitingRoomParticipantEvents()
-                    .getRxObservable().observeOn(AndroidSchedulers.mainThread())
-                    .subscribe(
-                            event -> {
-                                if (event.getValue() instanceof WaitingRoomParticipantEvent.Added) {
-                                    if (((WaitingRoomParticipantEvent.Added) event.getValue()).getParticipants().size() == 1) {
-                                        Log.i(TAG,
-                                                "WAITING_ROOM: " + ((WaitingRoomParticipantEvent.Added) event.getValue()).getParticipants().get(0).getName() + " has arrived in the waiting room");
-                                        showToastMessage(((WaitingRoomParticipantEvent.Added) event.getValue()).getParticipants().get(0).getName() + " has arrived in the waiting room");
-                                    } else if (((WaitingRoomParticipantEvent.Added) event.getValue()).getParticipants().size() > 1) {
-                                        Log.i(TAG, "WAITING_ROOM: " + getString(R.string.multiple_participants_arrived_wr));
-                                        showToastMessage(getString(R.string.multiple_participants_arrived_wr));
-                                    }
-                                } else if (event.getValue() instanceof WaitingRoomParticipantEvent.Removed) {
-                                    if (((WaitingRoomParticipantEvent.Removed) event.getValue()).getParticipants().size() == 1) {
-                                        Log.i(TAG,
-                                                "WAITING_ROOM: " + ((WaitingRoomParticipantEvent.Removed) event.getValue()).getParticipants().get(0).getName() + " has left the waiting room");
-                                        showToastMessage(((WaitingRoomParticipantEvent.Removed) event.getValue()).getParticipants().get(0).getName() + " has left the waiting room");
-                                    } else if (((WaitingRoomParticipantEvent.Removed) event.getValue()).getParticipants().size() > 1) {
-                                        Log.i(TAG, "WAITING_ROOM: " + getString(R.string.multiple_participants_left_wr));
-                                        showToastMessage(getString(R.string.multiple_participants_left_wr));
-                                    }
-                                }
-                            }, err -> {
-                                Log.e(TAG, "Unknown waiting room participant event: " + err.getMessage());
+                        } else if (event instanceof WaitingRoomParticipantEvent.Removed) {
+                            if (((WaitingRoomParticipantEvent.Removed) event).getParticipants().size() == 1) {
+                                Log.i(TAG,
+                                        "WAITING_ROOM: " + ((WaitingRoomParticipantEvent.Removed) event).getParticipants().get(0).getName() + " has left the waiting room");
+                                showToastMessage(((WaitingRoomParticipantEvent.Removed) event).getParticipants().get(0).getName() + " has left the waiting room");
+                            } else if (((WaitingRoomParticipantEvent.Removed) event).getParticipants().size() > 1) {
+                                Log.i(TAG, "WAITING_ROOM: " + getString(R.string.multiple_participants_left_wr));
+                                showToastMessage(getString(R.string.multiple_participants_left_wr));
                             }
-                    )
-            );
+                        }
+                    });
         }
     }
 
@@ -760,6 +898,12 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
         mTvProgressMsg = findViewById(R.id.tvProgressMsg);
         mAppVersion = findViewById(R.id.tvAppVersion);
         mTvClosedCaption = findViewById(R.id.tvClosedCaption);
+        mClosedCaptionPipeline = new ClosedCaptionPipeline(mTvClosedCaption, () -> {
+            ParticipantsService.Participant speaker =
+                    mMeetingService.getParticipantsService().getActiveSpeaker().getValue();
+            return speaker == null ? null : speaker.getName();
+        });
+        mTranscriptRecorder = new TranscriptRecorder(new File(getFilesDir(), "transcripts"));
         mTvWaitingRoom = findViewById(R.id.tv_waiting_room);
         btnJoin = findViewById(R.id.btnJoin);
         btnJoin.setOnClickListener(this);
@@ -835,7 +979,7 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
         mIvLogUploadButton.setVisibility(View.VISIBLE);
         mControlPanelContainer.setBackgroundResource(0);
         mTvClosedCaption.setVisibility(View.GONE);
-        mTvClosedCaption.setText(null);
+        mClosedCaptionPipeline.clear();
         if (mBottomSheetFragment != null && mBottomSheetFragment.isAdded()) {
             mBottomSheetFragment.dismiss();
         }
@@ -880,7 +1024,7 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
     }
     
     private void closeCameraSettings() {
-        mZoomScaleFactor = 1;
+        mCameraZoomController.reset();
         if (mCameraSettingsDialog != null && mCameraSettingsDialog.isShowing()) {
             mCameraSettingsDialog.dismiss();
         }
@@ -904,12 +1048,6 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
         mSelfView.requestLayout();
     }
 
-    private void handleRemoteContentState() {
-        if (mIsRemoteContentAvailable) {
-            hideProgress();
-        }
-    }
-
     private final IMenuCallback mIOptionMenuCallback =
             new IMenuCallback() {
                 @Override
@@ -939,6 +1077,23 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
                     }
                 }
 
+                @Override
+                public void handleTranscriptSwitchEvent(boolean enabled) {
+                    mIsTranscriptEnabled = enabled;
+                    if (enabled) {
+                        if (mMeetingUiState != null && mMeetingUiState.isInMeeting()) {
+                            startTranscriptRecording();
+                        }
+                    } else {
+                        stopTranscriptRecording();
+                    }
+                }
+
+                @Override
+                public void exportTranscript() {
+                    MainActivity.this.exportTranscript();
+                }
+
                 @Override
                 public void showWaitingRoom() {
                     showWaitingRoomDialog();
@@ -1036,7 +1191,7 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
             videoLayout = MeetingService.VideoLayout.Speaker.INSTANCE;
         }
         if (videoLayout != null) {
-            mMeetingService.setVideoLayout(videoLayout);
+            mAdaptiveGalleryPolicy.setPreferredLayout(videoLayout);
         }
     }
 
@@ -1050,7 +1205,7 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
         mVideoDeviceAdapter.updateSelectedPosition(position);
         VideoDevice videoDevice = mVideoDeviceAdapter.getItem(position);
         closeCameraSettings();
-        mVideoDeviceService.selectVideoDevice(videoDevice);
+        mCameraSwitcher.switchTo(videoDevice);
     }
 
     private void selectVideoLayout(int position) {
@@ -1067,121 +1222,180 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
     }
 
     private void showCameraSettingsDialog() {
-        final AlertDialog.Builder builder = new AlertDialog.Builder(this);
-        final SeekBar seek = new SeekBar(this);
-        seek.setMax(10);
-        seek.setMin(1);
-        seek.setProgress(mZoomScaleFactor);
-        builder.setTitle(getString(R.string.camera_setting_title));
-        builder.setView(seek);
-        try {
-            CameraCharacteristics cameraCharacteristics = getCurrentCameraCharacteristics();
-            seek.setOnSeekBarChangeListener(new SeekBar.OnSeekBarChangeListener() {
-                @Override
-                public void onProgressChanged(SeekBar seekBar, int progress, boolean fromUser) {
-                    mZoomScaleFactor = progress;
-                    Rect activeRegion = cameraCharacteristics
-                            .get(CameraCharacteristics.SENSOR_INFO_ACTIVE_ARRAY_SIZE);
-                    mVideoDeviceService.setRepeatingCaptureRequest(CaptureRequest.SCALER_CROP_REGION,
-                            getCropRegionForZoom(activeRegion, progress), null);
-                }
+        mCameraSettingsDialog = new AlertDialog.Builder(this)
+                .setTitle(getString(R.string.camera_setting_title))
+                .setView(R.layout.camera_settings_dialog).create();
+        mCameraSettingsDialog.show();
+        SeekBar seek = Objects.requireNonNull(mCameraSettingsDialog.findViewById(R.id.zoom));
+        CheckBox prewarm = Objects.requireNonNull(mCameraSettingsDialog.findViewById(R.id.prewarm));
+        TextView lastSwitch = Objects.requireNonNull(mCameraSettingsDialog.findViewById(R.id.lastSwitch));
+        prewarm.setChecked(mCameraSwitcher.isPrewarmEnabled());
+        prewarm.setOnCheckedChangeListener((buttonView, isChecked) -> mCameraSwitcher.setPrewarmEnabled(isChecked));
+        if (mLastCameraSwitchTiming != null) {
+            lastSwitch.setText(getString(R.string.camera_last_switch, mLastCameraSwitchTiming.getDurationMs()));
+            lastSwitch.setVisibility(View.VISIBLE);
+        }
+        bindCaptureProfile(mCameraSettingsDialog);
+        float maxZoom = mCameraZoomController.getMaxZoom();
+        seek.setMax(ZOOM_SEEK_STEPS);
+        seek.setProgress(Math.round((mCameraZoomController.getTargetZoom() - 1) / Math.max(maxZoom - 1, 1e-3f)
+                * ZOOM_SEEK_STEPS));
+        seek.setOnSeekBarChangeListener(new SeekBar.OnSeekBarChangeListener() {
+            @Override
+            public void onProgressChanged(SeekBar seekBar, int progress, boolean fromUser) {
+                // merged to one capture request per frame by the controller
+                mCameraZoomController.setZoom(1 + (maxZoom - 1) * progress / ZOOM_SEEK_STEPS);
+            }
 
-                @Override
-                public void onStartTrackingTouch(SeekBar seekBar) {
+            @Override
+            public void onStartTrackingTouch(SeekBar seekBar) {
 
-                }
+            }
 
-                @Override
-                public void onStopTrackingTouch(SeekBar seekBar) {
+            @Override
+            public void onStopTrackingTouch(SeekBar seekBar) {
 
-                }
-            });
-        } catch (CameraAccessException e) {
-            e.printStackTrace();
-        }
-        mCameraSettingsDialog = builder.create();
-        mCameraSettingsDialog.show();
+            }
+        });
     }
 
-    private void handleMeetingState(MeetingService.MeetingState meetingState) {
-        if (meetingState instanceof MeetingService.MeetingState.Connected) {
-            // add this flag to avoid screen shots.
-            // This also allows protection of screen during screen casts from 3rd party apps.
-            getWindow().addFlags(WindowManager.LayoutParams.FLAG_SECURE);
-            if (!mIsCallInProgress) {
-                OnGoingMeetingService.startService(getApplicationContext());
-                activateInMeetingSubscriptions();
+    /**
+     * Lets the user pin a capture profile or leave it to the policy, and shows the profile in use while the dialog is
+     * open.
+     */
+    private void bindCaptureProfile(AlertDialog dialog) {
+        Spinner captureProfile = Objects.requireNonNull(dialog.findViewById(R.id.captureProfile));
+        TextView captureProfileInUse = Objects.requireNonNull(dialog.findViewById(R.id.captureProfileInUse));
+        CaptureProfilePolicy.Profile[] profiles = CaptureProfilePolicy.Profile.values();
+        List<String> labels = new ArrayList<>(profiles.length + 1);
+        labels.add(getString(R.string.capture_profile_automatic));
+        for (CaptureProfilePolicy.Profile profile : profiles) {
+            labels.add(profile.name());
+        }
+        ArrayAdapter<String> adapter = new ArrayAdapter<>(this, android.R.layout.simple_spinner_item, labels);
+        adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+        captureProfile.setAdapter(adapter);
+        CaptureProfilePolicy.Profile override = mCaptureProfilePolicy.getOverride();
+        captureProfile.setSelection(override == null ? 0 : override.ordinal() + 1, false);
+        captureProfile.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
+            @Override
+            public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
+                CaptureProfilePolicy.Profile selected = position == 0 ? null : profiles[position - 1];
+                // the spinner also reports the initial selection
+                if (selected != mCaptureProfilePolicy.getOverride()) {
+                    mCaptureProfilePolicy.setOverride(selected);
+                }
             }
-            hideProgress();
-            showInMeetingFragment();
-            if (mIsReconnecting) {
-                mIsReconnecting = false;
-                showToastMessage(getString(R.string.reconnected));
+
+            @Override
+            public void onNothingSelected(AdapterView<?> parent) {
+
             }
-        } else if (meetingState instanceof MeetingService.MeetingState.Idle) {
-            endMeeting();
-            removeInMeetingFragment();
-            mIsInWaitingRoom = false;
-            showWaitingRoomUI();
-            getWindow().clearFlags(WindowManager.LayoutParams.FLAG_SECURE);
-        } else if (meetingState instanceof  MeetingService.MeetingState.WaitingRoom) {
-            removeInMeetingFragment();
-            mIsInWaitingRoom = true;
-            mInMeetingDisposable.clear();
-            mIsCallInProgress = false;
-            showOutOfMeetingView();
-            showWaitingRoomUI();
-        } else if (meetingState instanceof MeetingService.MeetingState.Connecting) {
-            mMeetingService.setAudioMuted(mIsAudioMuted);
-            mMeetingService.setVideoMuted(mIsVideoMuted);
-            mVideoDeviceService.enableSelfVideoPreview(false);
-            mIsInWaitingRoom = false;
-            showWaitingRoomUI();
+        });
+        Disposable profileDisposable = mCaptureProfilePolicy.getProfile().subscribe(profile ->
+                captureProfileInUse.setText(getString(R.string.capture_profile_in_use, profile.name())));
+        dialog.setOnDismissListener(d -> profileDisposable.dispose());
+    }
+
+    /**
+     * Applies the meeting state to the views, only the parts that differ from the previously rendered state.
+     */
+    private void renderMeetingUiState(@Nullable MeetingUiState previous, MeetingUiState state) {
+        boolean wasInMeeting = previous != null && previous.isInMeeting();
+        if (previous == null || previous.getPhase() != state.getPhase()) {
+            renderMeetingPhase(previous == null ? null : previous.getPhase(), state.getPhase());
+        }
+        if (!state.isInMeeting()) {
+            return;
+        }
+        if (state.isReceivingRemoteContent() && (!wasInMeeting || !previous.isReceivingRemoteContent())) {
             showInMeetingView();
-            mEtPassCode.setVisibility(View.GONE);
-            mEtName.setVisibility(View.GONE);
-            mEtEventId.setVisibility(View.GONE);
-            btnJoin.setVisibility(View.GONE);
-            mJoinLayout.setVisibility(View.GONE);
-            mTvProgressMsg.setVisibility(View.VISIBLE);
-            mTvProgressMsg.setText("Connecting...");
-        } else if (meetingState instanceof MeetingService.MeetingState.Reconnecting) {
-            mIsReconnecting = true;
-            showToastMessage(getString(R.string.reconnecting));
+        }
+        if (!wasInMeeting || previous.isContentShareAvailable() != state.isContentShareAvailable()) {
+            mIvScreenShare.setVisibility(state.isContentShareAvailable() ? View.VISIBLE : View.GONE);
+        }
+        if (!wasInMeeting || previous.isSharingContent() != state.isSharingContent()) {
+            mIvScreenShare.setSelected(state.isSharingContent());
         }
     }
 
     /**
-     * It calculates the new crop region by finding out the delta between active camera region's
-     * x and y coordinates and divide by zoom scale factor to get updated camera's region.
-     *
-     * @param cameraActiveRegion active area of the image sensor.
-     * @param zoomFactor scale factor
-     * @return Rect coordinates of crop region to be zoomed.
+     * Runs the side effects of every state, none is skipped, views are left to the render.
      */
-    private Rect getCropRegionForZoom(Rect cameraActiveRegion, int zoomFactor) {
-        int xCenter = cameraActiveRegion.width() / 2;
-        int yCenter = cameraActiveRegion.height() / 2;
-        int xDelta = (int) (0.5f * cameraActiveRegion.width() / zoomFactor);
-        int yDelta = (int) (0.5f * cameraActiveRegion.height() / zoomFactor);
-        return new Rect(xCenter - xDelta, yCenter - yDelta, xCenter + xDelta,
-                yCenter + yDelta);
-    }
-
-    private CameraCharacteristics getCurrentCameraCharacteristics() throws CameraAccessException {
-        VideoDevice currentVideoDevice = mVideoDeviceService.getCurrentVideoDevice().getValue();
-        if (currentVideoDevice != null) {
-            String cameraId = mVideoDeviceService.getCurrentVideoDevice().getValue().getId();
-            CameraManager cameraManager = (CameraManager) getSystemService(CAMERA_SERVICE);
-            return cameraManager.getCameraCharacteristics(cameraId);
-        } else {
-            Log.e(TAG, "No active camera device");
-            throw new CameraAccessException(CameraAccessException.CAMERA_ERROR);
+    private void onMeetingUiStateChanged(@Nullable MeetingUiState previous, MeetingUiState state) {
+        Log.i(TAG, "State: " + state);
+        mMeetingUiState = state;
+        boolean wasInMeeting = previous != null && previous.isInMeeting();
+        if (state.isInMeeting() && !wasInMeeting) {
+            OnGoingMeetingService.startService(getApplicationContext());
+            activateInMeetingSubscriptions();
+        }
+        if (previous == null || previous.getPhase() != state.getPhase()) {
+            switch (state.getPhase()) {
+                case IDLE:
+                    releaseMeeting();
+                    break;
+                case WAITING_ROOM:
+                    stopInMeetingWork();
+                    mInMeetingDisposable.clear();
+                    mInMeetingSubscriptions.clear();
+                    break;
+                case CONNECTING:
+                    mMeetingService.setAudioMuted(mIsAudioMuted);
+                    mMeetingService.setVideoMuted(mIsVideoMuted);
+                    mVideoDeviceService.enableSelfVideoPreview(false);
+                    break;
+                default:
+            }
+        }
+        if (state.isInMeeting() && (!wasInMeeting || previous.isSharingContent() != state.isSharingContent())) {
+            MeetingNotificationUtility.updateNotificationMessage(this, getString(state.isSharingContent()
+                    ? R.string.screen_share_notification_message : R.string.meeting_notification_message));
+        }
+    }
+
+    private void renderMeetingPhase(@Nullable MeetingUiState.Phase previous, MeetingUiState.Phase phase) {
+        switch (phase) {
+            case CONNECTED:
+                // add this flag to avoid screen shots.
+                // This also allows protection of screen during screen casts from 3rd party apps.
+                getWindow().addFlags(WindowManager.LayoutParams.FLAG_SECURE);
+                hideProgress();
+                showInMeetingFragment();
+                if (previous == MeetingUiState.Phase.RECONNECTING) {
+                    showToastMessage(getString(R.string.reconnected));
+                }
+                break;
+            case IDLE:
+                showMeetingEndedView();
+                removeInMeetingFragment();
+                getWindow().clearFlags(WindowManager.LayoutParams.FLAG_SECURE);
+                break;
+            case WAITING_ROOM:
+                removeInMeetingFragment();
+                showOutOfMeetingView();
+                showWaitingRoomUI(true);
+                break;
+            case CONNECTING:
+                showWaitingRoomUI(false);
+                showInMeetingView();
+                mEtPassCode.setVisibility(View.GONE);
+                mEtName.setVisibility(View.GONE);
+                mEtEventId.setVisibility(View.GONE);
+                btnJoin.setVisibility(View.GONE);
+                mJoinLayout.setVisibility(View.GONE);
+                mTvProgressMsg.setVisibility(View.VISIBLE);
+                mTvProgressMsg.setText("Connecting...");
+                break;
+            case RECONNECTING:
+                showToastMessage(getString(R.string.reconnecting));
+                break;
+            default:
         }
     }
 
-    private void showWaitingRoomUI() {
-        if (mIsInWaitingRoom) {
+    private void showWaitingRoomUI(boolean isInWaitingRoom) {
+        if (isInWaitingRoom) {
             mEtPassCode.setVisibility(View.GONE);
             mEtName.setVisibility(View.GONE);
             mEtEventId.setVisibility(View.GONE);
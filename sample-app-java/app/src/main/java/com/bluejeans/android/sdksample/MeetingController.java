@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2021 Blue Jeans Network, Inc. All rights reserved.
+ */
+package com.bluejeans.android.sdksample;
+
+import android.util.Log;
+import android.view.Choreographer;
+
+import androidx.annotation.Nullable;
+
+import com.bluejeans.bluejeanssdk.meeting.ContentShareAvailability;
+import com.bluejeans.bluejeanssdk.meeting.ContentShareState;
+import com.bluejeans.bluejeanssdk.meeting.MeetingService;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.disposables.CompositeDisposable;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+
+/**
+ * Folds the {@link MeetingService} observables the meeting screen depends on into a single {@link MeetingUiState}.
+ * Every emission is turned into a reducer and applied on the computation scheduler, only distinct states are
+ * published. {@link #render(Renderer)} delivers the latest state on the main thread at most once per frame, so a burst
+ * of changes, e.g. connection flaps on a bad network, costs a single render pass. Side effects that must run for every
+ * state, e.g. commands to the SDK on connecting, go through {@link #observeTransitions(TransitionListener)}, which
+ * skips nothing.
+ * Must be created on the main thread.
+ */
+public class MeetingController {
+    private static final String TAG = "MeetingController";
+
+    public interface Renderer {
+        /**
+         * @param previous state rendered last, null on the first render.
+         */
+        void render(@Nullable MeetingUiState previous, MeetingUiState state);
+    }
+
+    public interface TransitionListener {
+        /**
+         * @param previous state delivered last, null for the first state.
+         */
+        void onTransition(@Nullable MeetingUiState previous, MeetingUiState state);
+    }
+
+    private interface Reducer {
+        MeetingUiState reduce(MeetingUiState state);
+    }
+
+    private final Choreographer mChoreographer = Choreographer.getInstance();
+    private final Observable<MeetingUiState> mUiState;
+
+    public MeetingController(MeetingService meetingService) {
+        Observable<Reducer> meetingState = meetingService.getMeetingState().getRxObservable()
+                .<Reducer>map(state -> {
+                    MeetingUiState.Phase phase = toPhase(state.getValue());
+                    return s -> phase == null ? s : s.withPhase(phase);
+                });
+        Observable<Reducer> remoteContent = meetingService.getContentShareService().getReceivingRemoteContent()
+                .getRxObservable()
+                .<Reducer>map(isReceiving -> s -> s.withReceivingRemoteContent(
+                        isReceiving.getValue() == Boolean.TRUE));
+        Observable<Reducer> contentShareAvailability = meetingService.getContentShareService()
+                .getContentShareAvailability().getRxObservable()
+                .<Reducer>map(availability -> s -> s.withContentShareAvailable(
+                        availability.getValue() instanceof ContentShareAvailability.Available));
+        Observable<Reducer> contentShareState = meetingService.getContentShareService().getContentShareState()
+                .getRxObservable()
+                .<Reducer>map(state -> {
+                    ContentShareState value = state.getValue();
+                    return s -> value == null ? s : s.withSharingContent(!(value instanceof ContentShareState.Stopped));
+                });
+        mUiState = Observable.merge(Arrays.asList(meetingState, remoteContent, contentShareAvailability,
+                contentShareState))
+                .observeOn(Schedulers.computation())
+                .scan(MeetingUiState.INITIAL, (state, reducer) -> reducer.reduce(state))
+                // the seed is not a state of the meeting
+                .skip(1)
+                .distinctUntilChanged()
+                .replay(1)
+                .refCount();
+    }
+
+    /**
+     * @return distinct states, on the computation scheduler.
+     */
+    public Observable<MeetingUiState> getUiState() {
+        return mUiState;
+    }
+
+    /**
+     * Delivers every distinct state on the main thread, in order, for side effects. Views are left to
+     * {@link #render(Renderer)}.
+     */
+    public Disposable observeTransitions(TransitionListener listener) {
+        MeetingUiState[] delivered = new MeetingUiState[1];
+        return mUiState
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(state -> {
+                    MeetingUiState previous = delivered[0];
+                    delivered[0] = state;
+                    listener.onTransition(previous, state);
+                }, err -> Log.e(TAG, "Error in meeting ui state transitions " + err.getMessage()));
+    }
+
+    /**
+     * Renders the latest state on the next frame, states replaced before that frame are skipped.
+     */
+    public Disposable render(Renderer renderer) {
+        AtomicReference<MeetingUiState> pending = new AtomicReference<>();
+        MeetingUiState[] rendered = new MeetingUiState[1];
+        Choreographer.FrameCallback frameCallback = frameTimeNanos -> {
+            MeetingUiState state = pending.getAndSet(null);
+            if (state != null && !state.equals(rendered[0])) {
+                MeetingUiState previous = rendered[0];
+                rendered[0] = state;
+                renderer.render(previous, state);
+            }
+        };
+        CompositeDisposable disposable = new CompositeDisposable();
+        disposable.add(mUiState.subscribe(state -> {
+            // only the first state of a frame schedules the callback
+            if (pending.getAndSet(state) == null) {
+                mChoreographer.postFrameCallback(frameCallback);
+            }
+        }, err -> Log.e(TAG, "Error in meeting ui state " + err.getMessage())));
+        disposable.add(Disposable.fromAction(() -> mChoreographer.removeFrameCallback(frameCallback)));
+        return disposable;
+    }
+
+    @Nullable
+    private static MeetingUiState.Phase toPhase(@Nullable MeetingService.MeetingState state) {
+        if (state instanceof MeetingService.MeetingState.Connected) {
+            return MeetingUiState.Phase.CONNECTED;
+        } else if (state instanceof MeetingService.MeetingState.Reconnecting) {
+            return MeetingUiState.Phase.RECONNECTING;
+        } else if (state instanceof MeetingService.MeetingState.Connecting) {
+            return MeetingUiState.Phase.CONNECTING;
+        } else if (state instanceof MeetingService.MeetingState.Validating) {
+            return MeetingUiState.Phase.VALIDATING;
+        } else if (state instanceof MeetingService.MeetingState.WaitingRoom) {
+            return MeetingUiState.Phase.WAITING_ROOM;
+        } else if (state instanceof MeetingService.MeetingState.Idle) {
+            return MeetingUiState.Phase.IDLE;
+        }
+        return null;
+    }
+}
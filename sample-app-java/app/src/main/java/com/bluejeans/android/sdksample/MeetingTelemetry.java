@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2021 Blue Jeans Network, Inc. All rights reserved.
+ */
+package com.bluejeans.android.sdksample;
+
+import android.net.TrafficStats;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.bluejeans.android.sdksample.utils.FrameDropCounter;
+
+/**
+ * Samples the app's side of a meeting once a second into a ring buffer of the last {@link #CAPACITY} seconds:
+ * uplink and downlink bitrate of the process, CPU load and dropped frames.
+ * <ul>
+ * <li>The buffer is a set of primitive arrays allocated once, taking a sample allocates nothing, so it can be left
+ * on for the whole meeting.</li>
+ * <li>{@link #logSummary()} reports the buffer, e.g. along with uploaded logs.</li>
+ * </ul>
+ * Use from the main thread only.
+ */
+public class MeetingTelemetry {
+    private static final String TAG = "MeetingTelemetry";
+    public static final int CAPACITY = 300;
+    private static final long SAMPLE_INTERVAL_MS = 1_000;
+
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final Runnable mSample = this::sample;
+    private final FrameDropCounter mFrameDropCounter;
+    private final int mUid = Process.myUid();
+    private final int mProcessors = Runtime.getRuntime().availableProcessors();
+    private final int[] mUplinkKbps = new int[CAPACITY];
+    private final int[] mDownlinkKbps = new int[CAPACITY];
+    private final int[] mCpuPercent = new int[CAPACITY];
+    private final int[] mDroppedFrames = new int[CAPACITY];
+    private final RingIndex mRing = new RingIndex(CAPACITY);
+    private boolean mIsStarted = false;
+    private long mLastSampleAt;
+    private long mLastTxBytes;
+    private long mLastRxBytes;
+    private long mLastCpuMs;
+    private long mLastDropped;
+
+    /**
+     * @param frameDropCounter shared with the other users, so frame metrics are only listened to once.
+     */
+    public MeetingTelemetry(FrameDropCounter frameDropCounter) {
+        mFrameDropCounter = frameDropCounter;
+    }
+
+    public void start() {
+        if (mIsStarted) {
+            return;
+        }
+        mIsStarted = true;
+        mRing.clear();
+        mLastSampleAt = SystemClock.elapsedRealtime();
+        mLastTxBytes = TrafficStats.getUidTxBytes(mUid);
+        mLastRxBytes = TrafficStats.getUidRxBytes(mUid);
+        mLastCpuMs = Process.getElapsedCpuTime();
+        mFrameDropCounter.start();
+        mLastDropped = mFrameDropCounter.getDropped();
+        mHandler.postDelayed(mSample, SAMPLE_INTERVAL_MS);
+    }
+
+    public void stop() {
+        if (!mIsStarted) {
+            return;
+        }
+        mIsStarted = false;
+        mHandler.removeCallbacks(mSample);
+        mFrameDropCounter.stop();
+    }
+
+    /**
+     * Logs average and peak of every metric over the buffer, e.g. right before the logs are uploaded.
+     */
+    public void logSummary() {
+        if (mRing.size() == 0) {
+            Log.i(TAG, "No samples");
+            return;
+        }
+        Log.i(TAG, "Last " + mRing.size() + " s: uplink kbps " + summarize(mUplinkKbps)
+                + ", downlink kbps " + summarize(mDownlinkKbps)
+                + ", cpu % " + summarize(mCpuPercent)
+                + ", dropped frames " + summarize(mDroppedFrames));
+    }
+
+    private void sample() {
+        long now = SystemClock.elapsedRealtime();
+        long elapsedMs = Math.max(1, now - mLastSampleAt);
+        long txBytes = TrafficStats.getUidTxBytes(mUid);
+        long rxBytes = TrafficStats.getUidRxBytes(mUid);
+        long cpuMs = Process.getElapsedCpuTime();
+
+        int slot = mRing.next();
+        mUplinkKbps[slot] = toKbps(mLastTxBytes, txBytes, elapsedMs);
+        mDownlinkKbps[slot] = toKbps(mLastRxBytes, rxBytes, elapsedMs);
+        mCpuPercent[slot] = (int) ((cpuMs - mLastCpuMs) * 100 / (elapsedMs * mProcessors));
+        long dropped = mFrameDropCounter.getDropped();
+        mDroppedFrames[slot] = (int) (dropped - mLastDropped);
+        mRing.advance();
+
+        mLastSampleAt = now;
+        mLastTxBytes = txBytes;
+        mLastRxBytes = rxBytes;
+        mLastCpuMs = cpuMs;
+        mLastDropped = dropped;
+        mHandler.postDelayed(mSample, SAMPLE_INTERVAL_MS);
+    }
+
+    private String summarize(int[] values) {
+        int size = mRing.size();
+        long sum = 0;
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            int value = values[mRing.slot(i)];
+            sum += value;
+            max = Math.max(max, value);
+        }
+        return "avg " + sum / size + " max " + max;
+    }
+
+    private static int toKbps(long fromBytes, long toBytes, long elapsedMs) {
+        if (fromBytes == TrafficStats.UNSUPPORTED || toBytes == TrafficStats.UNSUPPORTED) {
+            return -1;
+        }
+        // bytes per ms * 8 is kbps
+        return (int) (Math.max(0, toBytes - fromBytes) * 8 / elapsedMs);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2021 Blue Jeans Network, Inc. All rights reserved.
+ */
+package com.bluejeans.android.sdksample;
+
+import androidx.annotation.NonNull;
+
+import java.util.Objects;
+
+/**
+ * Immutable snapshot of the meeting as shown by {@link MainActivity}, produced by {@link MeetingController}.
+ */
+public final class MeetingUiState {
+
+    public enum Phase {
+        IDLE, VALIDATING, CONNECTING, WAITING_ROOM, CONNECTED, RECONNECTING
+    }
+
+    static final MeetingUiState INITIAL = new MeetingUiState(Phase.IDLE, false, false, false);
+
+    private final Phase mPhase;
+    private final boolean mIsReceivingRemoteContent;
+    private final boolean mIsContentShareAvailable;
+    private final boolean mIsSharingContent;
+
+    private MeetingUiState(Phase phase, boolean isReceivingRemoteContent, boolean isContentShareAvailable,
+                           boolean isSharingContent) {
+        mPhase = phase;
+        mIsReceivingRemoteContent = isReceivingRemoteContent;
+        mIsContentShareAvailable = isContentShareAvailable;
+        mIsSharingContent = isSharingContent;
+    }
+
+    public Phase getPhase() {
+        return mPhase;
+    }
+
+    /**
+     * @return true while connected or reconnecting, in meeting subscriptions are active.
+     */
+    public boolean isInMeeting() {
+        return mPhase == Phase.CONNECTED || mPhase == Phase.RECONNECTING;
+    }
+
+    public boolean isReceivingRemoteContent() {
+        return mIsReceivingRemoteContent;
+    }
+
+    public boolean isContentShareAvailable() {
+        return mIsContentShareAvailable;
+    }
+
+    public boolean isSharingContent() {
+        return mIsSharingContent;
+    }
+
+    MeetingUiState withPhase(Phase phase) {
+        return new MeetingUiState(phase, mIsReceivingRemoteContent, mIsContentShareAvailable, mIsSharingContent);
+    }
+
+    MeetingUiState withReceivingRemoteContent(boolean isReceivingRemoteContent) {
+        return new MeetingUiState(mPhase, isReceivingRemoteContent, mIsContentShareAvailable, mIsSharingContent);
+    }
+
+    MeetingUiState withContentShareAvailable(boolean isContentShareAvailable) {
+        return new MeetingUiState(mPhase, mIsReceivingRemoteContent, isContentShareAvailable, mIsSharingContent);
+    }
+
+    MeetingUiState withSharingContent(boolean isSharingContent) {
+        return new MeetingUiState(mPhase, mIsReceivingRemoteContent, mIsContentShareAvailable, isSharingContent);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        MeetingUiState that = (MeetingUiState) o;
+        return mPhase == that.mPhase
+                && mIsReceivingRemoteContent == that.mIsReceivingRemoteContent
+                && mIsContentShareAvailable == that.mIsContentShareAvailable
+                && mIsSharingContent == that.mIsSharingContent;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(mPhase, mIsReceivingRemoteContent, mIsContentShareAvailable, mIsSharingContent);
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "MeetingUiState{phase=" + mPhase
+                + ", receivingRemoteContent=" + mIsReceivingRemoteContent
+                + ", contentShareAvailable=" + mIsContentShareAvailable
+                + ", sharingContent=" + mIsSharingContent + "}";
+    }
+}
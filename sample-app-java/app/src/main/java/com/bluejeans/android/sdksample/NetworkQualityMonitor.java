@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2021 Blue Jeans Network, Inc. All rights reserved.
+ */
+package com.bluejeans.android.sdksample;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+import android.net.TrafficStats;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.util.function.BooleanSupplier;
+
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.subjects.BehaviorSubject;
+
+/**
+ * Scores the connection per direction from 0 to 100 while in a meeting, so the app can react before the meeting
+ * has to reconnect, e.g. by suggesting to turn video off.
+ * <ul>
+ * <li>The base of each score is the link capacity the system reports against what a video call needs. It is an
+ * estimate, e.g. the Wi-Fi link speed or a constant per cellular technology, and says nothing about congestion. A
+ * link that reports no capacity is not held against the score. A network without validated internet scores 0, a weak
+ * radio signal caps the score at fair.</li>
+ * <li>Stalls are the measured part. A second in which the process moved less than {@link #STALL_KBPS} in a direction
+ * while video is expected in it scores 0 for that direction. The bitrate is not used otherwise, it also falls when a
+ * scene is static, none of which is the network.</li>
+ * <li>Scores are smoothed, the level only changes once the score has moved past a threshold by
+ * {@link #HYSTERESIS}.</li>
+ * <li>Scores are sampled every {@link #SAMPLE_INTERVAL_MS}, an update is only published when a rounded score or a
+ * level changed, so at most once per sample.</li>
+ * </ul>
+ * Use from the main thread only.
+ */
+public class NetworkQualityMonitor {
+    private static final String TAG = "NetworkQualityMonitor";
+    private static final int REQUIRED_UPLINK_KBPS = 1_200;
+    private static final int REQUIRED_DOWNLINK_KBPS = 2_500;
+    private static final int WEAK_SIGNAL_DBM = -100;
+    // below what any video stream needs, audio alone stays under it
+    private static final int STALL_KBPS = 80;
+    private static final long SAMPLE_INTERVAL_MS = 1_000;
+    private static final float SMOOTHING = 0.3f;
+    private static final int GOOD_SCORE = 70;
+    private static final int FAIR_SCORE = 40;
+    private static final int HYSTERESIS = 5;
+
+    public enum Level {
+        GOOD, FAIR, POOR
+    }
+
+    public static final class NetworkQuality {
+        private final int mUplinkScore;
+        private final int mDownlinkScore;
+        private final Level mUplinkLevel;
+        private final Level mDownlinkLevel;
+
+        private NetworkQuality(int uplinkScore, int downlinkScore, Level uplinkLevel, Level downlinkLevel) {
+            mUplinkScore = uplinkScore;
+            mDownlinkScore = downlinkScore;
+            mUplinkLevel = uplinkLevel;
+            mDownlinkLevel = downlinkLevel;
+        }
+
+        public int getUplinkScore() {
+            return mUplinkScore;
+        }
+
+        public int getDownlinkScore() {
+            return mDownlinkScore;
+        }
+
+        public Level getUplinkLevel() {
+            return mUplinkLevel;
+        }
+
+        public Level getDownlinkLevel() {
+            return mDownlinkLevel;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "NetworkQuality{uplink " + mUplinkScore + " " + mUplinkLevel
+                    + ", downlink " + mDownlinkScore + " " + mDownlinkLevel + "}";
+        }
+    }
+
+    private final ConnectivityManager mConnectivityManager;
+    private final BooleanSupplier mIsSendingVideo;
+    private final BooleanSupplier mIsReceivingVideo;
+    private final int mUid = Process.myUid();
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final Runnable mSample = this::sample;
+    private final BehaviorSubject<NetworkQuality> mQuality = BehaviorSubject.create();
+    private final ConnectivityManager.NetworkCallback mNetworkCallback = new ConnectivityManager.NetworkCallback() {
+        @Override
+        public void onCapabilitiesChanged(@NonNull Network network, @NonNull NetworkCapabilities capabilities) {
+            int uplinkKbps = capabilities.getLinkUpstreamBandwidthKbps();
+            int downlinkKbps = capabilities.getLinkDownstreamBandwidthKbps();
+            boolean isValidated = capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_VALIDATED);
+            int signalDbm = Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q
+                    ? capabilities.getSignalStrength() : NetworkCapabilities.SIGNAL_STRENGTH_UNSPECIFIED;
+            // network callbacks arrive on a binder thread
+            mHandler.post(() -> {
+                mLinkUplinkKbps = uplinkKbps;
+                mLinkDownlinkKbps = downlinkKbps;
+                mIsValidated = isValidated;
+                mSignalDbm = signalDbm;
+            });
+        }
+
+        @Override
+        public void onLost(@NonNull Network network) {
+            mHandler.post(() -> mIsValidated = false);
+        }
+    };
+    private boolean mIsStarted = false;
+    private int mLinkUplinkKbps = Integer.MAX_VALUE;
+    private int mLinkDownlinkKbps = Integer.MAX_VALUE;
+    private boolean mIsValidated = true;
+    private int mSignalDbm = NetworkCapabilities.SIGNAL_STRENGTH_UNSPECIFIED;
+    private float mUplinkScore;
+    private float mDownlinkScore;
+    private Level mUplinkLevel;
+    private Level mDownlinkLevel;
+    private long mLastSampleAt;
+    private long mLastTxBytes;
+    private long mLastRxBytes;
+
+    /**
+     * @param isSendingVideo whether video is being sent, i.e. the camera is on, read on the main thread.
+     * @param isReceivingVideo whether remote video is expected, i.e. a remote camera is on and remote video isn't
+     * muted, read on the main thread.
+     */
+    public NetworkQualityMonitor(Context context, BooleanSupplier isSendingVideo, BooleanSupplier isReceivingVideo) {
+        mConnectivityManager = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        mIsSendingVideo = isSendingVideo;
+        mIsReceivingVideo = isReceivingVideo;
+    }
+
+    public void start() {
+        if (mIsStarted) {
+            return;
+        }
+        mIsStarted = true;
+        mUplinkScore = 100;
+        mDownlinkScore = 100;
+        mUplinkLevel = Level.GOOD;
+        mDownlinkLevel = Level.GOOD;
+        // the last value of the previous meeting must not be replayed into this one
+        mQuality.onNext(new NetworkQuality(100, 100, Level.GOOD, Level.GOOD));
+        mLastSampleAt = SystemClock.elapsedRealtime();
+        mLastTxBytes = TrafficStats.getUidTxBytes(mUid);
+        mLastRxBytes = TrafficStats.getUidRxBytes(mUid);
+        mConnectivityManager.registerDefaultNetworkCallback(mNetworkCallback);
+        mHandler.postDelayed(mSample, SAMPLE_INTERVAL_MS);
+    }
+
+    public void stop() {
+        if (!mIsStarted) {
+            return;
+        }
+        mIsStarted = false;
+        mHandler.removeCallbacksAndMessages(null);
+        try {
+            mConnectivityManager.unregisterNetworkCallback(mNetworkCallback);
+        } catch (IllegalArgumentException e) {
+            Log.w(TAG, "Network callback was not registered");
+        }
+    }
+
+    /**
+     * @return quality of the connection, replays the latest value. Starts from good on every {@link #start()}.
+     */
+    public Observable<NetworkQuality> getNetworkQuality() {
+        return mQuality;
+    }
+
+    private void sample() {
+        long now = SystemClock.elapsedRealtime();
+        long elapsedMs = Math.max(1, now - mLastSampleAt);
+        long txBytes = TrafficStats.getUidTxBytes(mUid);
+        long rxBytes = TrafficStats.getUidRxBytes(mUid);
+        boolean isUplinkStalled = mIsSendingVideo.getAsBoolean() && isStalled(mLastTxBytes, txBytes, elapsedMs);
+        boolean isDownlinkStalled = mIsReceivingVideo.getAsBoolean() && isStalled(mLastRxBytes, rxBytes, elapsedMs);
+        mLastSampleAt = now;
+        mLastTxBytes = txBytes;
+        mLastRxBytes = rxBytes;
+
+        float uplinkRaw = isUplinkStalled ? 0 : getCapacityScore(mLinkUplinkKbps, REQUIRED_UPLINK_KBPS);
+        float downlinkRaw = isDownlinkStalled ? 0 : getCapacityScore(mLinkDownlinkKbps, REQUIRED_DOWNLINK_KBPS);
+        mUplinkScore += (uplinkRaw - mUplinkScore) * SMOOTHING;
+        mDownlinkScore += (downlinkRaw - mDownlinkScore) * SMOOTHING;
+        Level uplinkLevel = toLevel(mUplinkScore, mUplinkLevel);
+        Level downlinkLevel = toLevel(mDownlinkScore, mDownlinkLevel);
+        if (uplinkLevel != mUplinkLevel || downlinkLevel != mDownlinkLevel) {
+            Log.i(TAG, "Uplink " + mUplinkLevel + " -> " + uplinkLevel + ", downlink " + mDownlinkLevel + " -> "
+                    + downlinkLevel);
+        }
+        mUplinkLevel = uplinkLevel;
+        mDownlinkLevel = downlinkLevel;
+        int uplinkScore = Math.round(mUplinkScore);
+        int downlinkScore = Math.round(mDownlinkScore);
+        NetworkQuality last = mQuality.getValue();
+        if (last == null || last.mUplinkScore != uplinkScore || last.mDownlinkScore != downlinkScore
+                || last.mUplinkLevel != uplinkLevel || last.mDownlinkLevel != downlinkLevel) {
+            mQuality.onNext(new NetworkQuality(uplinkScore, downlinkScore, uplinkLevel, downlinkLevel));
+        }
+        mHandler.postDelayed(mSample, SAMPLE_INTERVAL_MS);
+    }
+
+    private float getCapacityScore(int linkKbps, int requiredKbps) {
+        if (!mIsValidated) {
+            return 0;
+        }
+        // 0 means the link doesn't know its capacity, not that it has none
+        float score = linkKbps <= 0 ? 100 : Math.min(1f, linkKbps / (float) requiredKbps) * 100;
+        if (mSignalDbm != NetworkCapabilities.SIGNAL_STRENGTH_UNSPECIFIED && mSignalDbm < WEAK_SIGNAL_DBM) {
+            score = Math.min(score, FAIR_SCORE);
+        }
+        return score;
+    }
+
+    private static boolean isStalled(long fromBytes, long toBytes, long elapsedMs) {
+        if (fromBytes == TrafficStats.UNSUPPORTED || toBytes == TrafficStats.UNSUPPORTED) {
+            return false;
+        }
+        // bytes per ms * 8 is kbps
+        return Math.max(0, toBytes - fromBytes) * 8 / elapsedMs < STALL_KBPS;
+    }
+
+    private static Level toLevel(float score, Level current) {
+        // a level is left only once the score is clearly past its threshold
+        switch (current) {
+            case GOOD:
+                return score >= GOOD_SCORE - HYSTERESIS ? Level.GOOD : score >= FAIR_SCORE ? Level.FAIR : Level.POOR;
+            case FAIR:
+                return score >= GOOD_SCORE + HYSTERESIS ? Level.GOOD
+                        : score >= FAIR_SCORE - HYSTERESIS ? Level.FAIR : Level.POOR;
+            default:
+                return score >= GOOD_SCORE ? Level.GOOD : score >= FAIR_SCORE + HYSTERESIS ? Level.FAIR : Level.POOR;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2021 Blue Jeans Network, Inc. All rights reserved.
+ */
+package com.bluejeans.android.sdksample;
+
+import android.util.Log;
+
+import com.bluejeans.bluejeanssdk.meeting.ContentShareState;
+import com.bluejeans.bluejeanssdk.meeting.MeetingService;
+
+import java.util.EnumSet;
+
+/**
+ * Single owner of {@link MeetingService#setRemoteVideoMuted(boolean)} and {@link MeetingService#setContentMuted(boolean)}.
+ * Every policy that wants remote media off adds its {@link Reason}, media is received again once no reason is left.
+ * The SDK is only called when the resulting mute state changes.
+ * Content is never muted while this client is sharing, the SDK mutes both directions of content at once.
+ * Use from the main thread only.
+ */
+public class RemoteMediaGate {
+    private static final String TAG = "RemoteMediaGate";
+
+    public enum Reason {
+        /**
+         * No activity of the app is visible.
+         */
+        BACKGROUND,
+        /**
+         * The page showing the stream is not the selected page of the in meeting pager.
+         */
+        PAGE_HIDDEN,
+        /**
+         * The meeting is shown in a picture-in-picture window, which only has room for the active speaker.
+         */
+        PICTURE_IN_PICTURE
+    }
+
+    private final MeetingService mMeetingService;
+    private final EnumSet<Reason> mVideoMuteReasons = EnumSet.noneOf(Reason.class);
+    private final EnumSet<Reason> mContentMuteReasons = EnumSet.noneOf(Reason.class);
+    private boolean mIsVideoMuted = false;
+    private boolean mIsContentMuted = false;
+
+    public RemoteMediaGate(MeetingService meetingService) {
+        mMeetingService = meetingService;
+    }
+
+    public void setRemoteVideoMuted(Reason reason, boolean muted) {
+        if (muted) {
+            mVideoMuteReasons.add(reason);
+        } else {
+            mVideoMuteReasons.remove(reason);
+        }
+        boolean isMuted = !mVideoMuteReasons.isEmpty();
+        if (isMuted != mIsVideoMuted) {
+            mIsVideoMuted = isMuted;
+            Log.i(TAG, "Remote video muted " + isMuted + ", reasons " + mVideoMuteReasons);
+            mMeetingService.setRemoteVideoMuted(isMuted);
+        }
+    }
+
+    public void setContentMuted(Reason reason, boolean muted) {
+        if (muted) {
+            mContentMuteReasons.add(reason);
+        } else {
+            mContentMuteReasons.remove(reason);
+        }
+        applyContentMuted();
+    }
+
+    /**
+     * Call when the content share state changes, content muting is held back while sharing.
+     */
+    public void onContentShareStateChanged() {
+        applyContentMuted();
+    }
+
+    public boolean isRemoteVideoMuted() {
+        return mIsVideoMuted;
+    }
+
+    /**
+     * Forgets all reasons and unmutes what is muted, the SDK is not documented to reset remote mute between
+     * meetings.
+     */
+    public void reset() {
+        mVideoMuteReasons.clear();
+        mContentMuteReasons.clear();
+        if (mIsVideoMuted) {
+            mIsVideoMuted = false;
+            Log.i(TAG, "Remote video unmuted on reset");
+            mMeetingService.setRemoteVideoMuted(false);
+        }
+        if (mIsContentMuted) {
+            mIsContentMuted = false;
+            Log.i(TAG, "Content unmuted on reset");
+            mMeetingService.setContentMuted(false);
+        }
+    }
+
+    private void applyContentMuted() {
+        ContentShareState contentShareState =
+                mMeetingService.getContentShareService().getContentShareState().getValue();
+        boolean isSharing = contentShareState != null && !(contentShareState instanceof ContentShareState.Stopped);
+        boolean isMuted = !mContentMuteReasons.isEmpty() && !isSharing;
+        if (isMuted != mIsContentMuted) {
+            mIsContentMuted = isMuted;
+            Log.i(TAG, "Content muted " + isMuted + ", reasons " + mContentMuteReasons);
+            mMeetingService.setContentMuted(isMuted);
+        }
+    }
+}
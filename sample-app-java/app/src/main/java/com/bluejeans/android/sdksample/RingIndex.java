@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2021 Blue Jeans Network, Inc. All rights reserved.
+ */
+package com.bluejeans.android.sdksample;
+
+/**
+ * Slot arithmetic of a fixed size ring buffer kept in parallel arrays, once full the oldest slot is overwritten.
+ * Index 0 is the oldest entry, {@code size() - 1} the latest.
+ * Not thread safe.
+ */
+final class RingIndex {
+    private final int mCapacity;
+    // next slot to write
+    private int mHead = 0;
+    private int mSize = 0;
+
+    RingIndex(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive, was " + capacity);
+        }
+        mCapacity = capacity;
+    }
+
+    /**
+     * @return slot to write the next entry into, {@link #advance()} once it is written.
+     */
+    int next() {
+        return mHead;
+    }
+
+    void advance() {
+        mHead = (mHead + 1) % mCapacity;
+        mSize = Math.min(mCapacity, mSize + 1);
+    }
+
+    int size() {
+        return mSize;
+    }
+
+    /**
+     * @return slot of the entry at {@code index}, 0 being the oldest.
+     */
+    int slot(int index) {
+        if (index < 0 || index >= mSize) {
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + mSize);
+        }
+        return (mHead - mSize + index + mCapacity) % mCapacity;
+    }
+
+    void clear() {
+        mHead = 0;
+        mSize = 0;
+    }
+}
@@ -5,7 +5,6 @@ package com.bluejeans.android.sdksample;
 
 import com.bluejeans.bluejeanssdk.BlueJeansSDK;
 import com.bluejeans.bluejeanssdk.BlueJeansSDKInitParams;
-import com.bluejeans.bluejeanssdk.GalleryLayoutConfiguration;
 import com.bluejeans.bluejeanssdk.VideoConfiguration;
 
 import android.app.Application;
@@ -14,12 +13,17 @@ import android.util.Log;
 public class SampleApplication extends Application {
 
     private static BlueJeansSDK blueJeansSDK;
+    private static BackgroundMediaPolicy backgroundMediaPolicy;
     private static final String TAG = "SampleApplication";
 
     @Override
     public void onCreate() {
         super.onCreate();
         initSDK();
+        if (blueJeansSDK != null) {
+            backgroundMediaPolicy = new BackgroundMediaPolicy(this, blueJeansSDK.getMeetingService());
+            backgroundMediaPolicy.start();
+        }
         Log.i(
                 TAG, "App VersionName " + BuildConfig.VERSION_NAME +
                         " App VersionCode " + BuildConfig.VERSION_CODE +
@@ -29,7 +33,7 @@ public class SampleApplication extends Application {
 
     private void initSDK() {
         try {
-            blueJeansSDK = new BlueJeansSDK(new BlueJeansSDKInitParams(this, false, new VideoConfiguration(new GalleryLayoutConfiguration.FiveByFive())));
+            blueJeansSDK = new BlueJeansSDK(new BlueJeansSDKInitParams(this, false, new VideoConfiguration(AdaptiveGalleryPolicy.getInitialGalleryConfiguration(this))));
         } catch (Exception ex) {
             Log.e(TAG, "Exception while initiating sdk " + ex.getMessage());
         }
@@ -38,4 +42,8 @@ public class SampleApplication extends Application {
     public static BlueJeansSDK getBlueJeansSDK() {
         return blueJeansSDK;
     }
+
+    public static BackgroundMediaPolicy getBackgroundMediaPolicy() {
+        return backgroundMediaPolicy;
+    }
 }
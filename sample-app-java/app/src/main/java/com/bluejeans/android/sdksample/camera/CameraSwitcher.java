@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2021 Blue Jeans Network, Inc. All rights reserved.
+ */
+package com.bluejeans.android.sdksample.camera;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.bluejeans.bluejeanssdk.devices.VideoDevice;
+import com.bluejeans.bluejeanssdk.devices.VideoDeviceService;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.disposables.CompositeDisposable;
+import io.reactivex.rxjava3.subjects.PublishSubject;
+import kotlin.Unit;
+
+/**
+ * Switches cameras through {@link VideoDeviceService#selectVideoDevice(VideoDevice)} and times each switch, from the
+ * request until the new camera is opened. Selecting the camera already in use does nothing.
+ * With pre-warm enabled the characteristics of every camera are read on the io scheduler as soon as the devices are
+ * known, so zooming right after a switch doesn't query the camera service on the main thread. The switch itself is
+ * done by the SDK and is not sped up by pre-warm.
+ * Use from the main thread only.
+ */
+public class CameraSwitcher {
+    private static final String TAG = "CameraSwitcher";
+    public static final long TARGET_SWITCH_MS = 150;
+
+    public static final class SwitchTiming {
+        private final String mFromId;
+        private final String mToId;
+        private final long mDurationMs;
+
+        private SwitchTiming(String fromId, String toId, long durationMs) {
+            mFromId = fromId;
+            mToId = toId;
+            mDurationMs = durationMs;
+        }
+
+        public String getFromId() {
+            return mFromId;
+        }
+
+        public String getToId() {
+            return mToId;
+        }
+
+        public long getDurationMs() {
+            return mDurationMs;
+        }
+
+        public boolean isWithinTarget() {
+            return mDurationMs <= TARGET_SWITCH_MS;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "SwitchTiming{" + mFromId + " -> " + mToId + ", " + mDurationMs + " ms}";
+        }
+    }
+
+    private final VideoDeviceService mVideoDeviceService;
+    private final CameraZoomController mCameraZoomController;
+    private boolean mIsPrewarmEnabled;
+    private List<VideoDevice> mVideoDevices = Collections.emptyList();
+    private final CompositeDisposable mDisposable = new CompositeDisposable();
+    private final PublishSubject<SwitchTiming> mSwitchTimings = PublishSubject.create();
+    private String mPendingFromId = null;
+    private String mPendingToId = null;
+    private long mSwitchStartedAt = 0;
+    // the state of the previous camera may still read opened right after the request
+    private boolean mHasStateChanged = false;
+
+    public CameraSwitcher(VideoDeviceService videoDeviceService, CameraZoomController cameraZoomController,
+                          boolean isPrewarmEnabled) {
+        mVideoDeviceService = videoDeviceService;
+        mCameraZoomController = cameraZoomController;
+        mIsPrewarmEnabled = isPrewarmEnabled;
+        mDisposable.add(videoDeviceService.getCurrentVideoDeviceState().subscribeOnUI(state -> {
+            if (mPendingToId != null) {
+                mHasStateChanged = true;
+            }
+            onSwitchProgress();
+            return Unit.INSTANCE;
+        }, err -> {
+            Log.e(TAG, "Error in video device state subscription " + err.getMessage());
+            return Unit.INSTANCE;
+        }));
+        mDisposable.add(videoDeviceService.getCurrentVideoDevice().subscribeOnUI(device -> {
+            onSwitchProgress();
+            return Unit.INSTANCE;
+        }, err -> {
+            Log.e(TAG, "Error in current video device subscription " + err.getMessage());
+            return Unit.INSTANCE;
+        }));
+    }
+
+    /**
+     * Reads the characteristics of every camera in the background, if pre-warm is enabled.
+     */
+    public void prewarm(List<VideoDevice> videoDevices) {
+        mVideoDevices = videoDevices;
+        if (!mIsPrewarmEnabled) {
+            return;
+        }
+        List<String> cameraIds = new ArrayList<>();
+        for (VideoDevice videoDevice : videoDevices) {
+            cameraIds.add(videoDevice.getId());
+        }
+        long startedAt = SystemClock.elapsedRealtime();
+        mDisposable.add(mCameraZoomController.loadCapabilities(cameraIds).subscribe(
+                () -> Log.d(TAG, "Pre-warmed " + cameraIds.size() + " cameras in "
+                        + (SystemClock.elapsedRealtime() - startedAt) + " ms"),
+                err -> Log.e(TAG, "Pre-warm failed " + err.getMessage())));
+    }
+
+    /**
+     * Enabling pre-warms the cameras already known.
+     */
+    public void setPrewarmEnabled(boolean isPrewarmEnabled) {
+        mIsPrewarmEnabled = isPrewarmEnabled;
+        if (isPrewarmEnabled) {
+            prewarm(mVideoDevices);
+        }
+    }
+
+    public boolean isPrewarmEnabled() {
+        return mIsPrewarmEnabled;
+    }
+
+    /**
+     * @return false if the camera is already in use.
+     */
+    public boolean switchTo(VideoDevice videoDevice) {
+        VideoDevice current = mVideoDeviceService.getCurrentVideoDevice().getValue();
+        if (current != null && current.getId().equals(videoDevice.getId())) {
+            return false;
+        }
+        // the new camera starts without zoom
+        mCameraZoomController.reset();
+        mPendingFromId = current == null ? null : current.getId();
+        mPendingToId = videoDevice.getId();
+        mSwitchStartedAt = SystemClock.elapsedRealtime();
+        mHasStateChanged = false;
+        mVideoDeviceService.selectVideoDevice(videoDevice);
+        return true;
+    }
+
+    /**
+     * @return one timing per completed switch, on the main thread.
+     */
+    public Observable<SwitchTiming> getSwitchTimings() {
+        return mSwitchTimings;
+    }
+
+    public void release() {
+        mDisposable.dispose();
+    }
+
+    private void onSwitchProgress() {
+        if (mPendingToId == null || !mHasStateChanged) {
+            return;
+        }
+        VideoDevice current = mVideoDeviceService.getCurrentVideoDevice().getValue();
+        boolean isOpened = mVideoDeviceService.getCurrentVideoDeviceState().getValue()
+                instanceof VideoDeviceService.VideoDeviceState.Opened;
+        if (current == null || !current.getId().equals(mPendingToId) || !isOpened) {
+            return;
+        }
+        SwitchTiming timing = new SwitchTiming(mPendingFromId, mPendingToId,
+                SystemClock.elapsedRealtime() - mSwitchStartedAt);
+        mPendingToId = null;
+        mPendingFromId = null;
+        if (timing.isWithinTarget()) {
+            Log.i(TAG, timing.toString());
+        } else {
+            Log.w(TAG, timing + " over the target of " + TARGET_SWITCH_MS + " ms");
+        }
+        mSwitchTimings.onNext(timing);
+    }
+}
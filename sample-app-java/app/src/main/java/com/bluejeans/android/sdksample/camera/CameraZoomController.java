@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2021 Blue Jeans Network, Inc. All rights reserved.
+ */
+package com.bluejeans.android.sdksample.camera;
+
+import android.content.Context;
+import android.graphics.Rect;
+import android.hardware.camera2.CameraAccessException;
+import android.hardware.camera2.CameraCharacteristics;
+import android.hardware.camera2.CameraManager;
+import android.hardware.camera2.CaptureRequest;
+import android.os.Build;
+import android.util.Log;
+import android.util.Range;
+import android.view.Choreographer;
+
+import androidx.annotation.Nullable;
+
+import com.bluejeans.bluejeanssdk.devices.VideoDevice;
+import com.bluejeans.bluejeanssdk.devices.VideoDeviceService;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import io.reactivex.rxjava3.subjects.BehaviorSubject;
+
+/**
+ * Zooms the current camera through {@link VideoDeviceService#setRepeatingCaptureRequest}.
+ * <ul>
+ * <li>Zoom requests are merged, at most one capture request is sent per frame, moving the zoom a part of the way
+ * to the target so the picture glides instead of jumping.</li>
+ * <li>{@link CaptureRequest#CONTROL_ZOOM_RATIO} is used where the camera supports it, a centered
+ * {@link CaptureRequest#SCALER_CROP_REGION} otherwise.</li>
+ * <li>The zoom range of each camera is read once and cached.</li>
+ * </ul>
+ * {@link #getAppliedZoom()} reports the zoom the camera accepted. Use from the main thread only.
+ */
+public class CameraZoomController implements Choreographer.FrameCallback {
+    private static final String TAG = "CameraZoomController";
+    public static final float NO_ZOOM = 1f;
+    // part of the remaining distance covered per frame
+    private static final float SMOOTHING = 0.35f;
+    private static final float SNAP_DISTANCE = 0.01f;
+
+    private final CameraManager mCameraManager;
+    private final VideoDeviceService mVideoDeviceService;
+    private final Choreographer mChoreographer = Choreographer.getInstance();
+    private final Map<String, ZoomCapabilities> mCapabilities = new HashMap<>();
+    private final BehaviorSubject<Float> mAppliedZoom = BehaviorSubject.createDefault(NO_ZOOM);
+    private float mTargetZoom = NO_ZOOM;
+    private float mCurrentZoom = NO_ZOOM;
+    private boolean mIsFrameScheduled = false;
+
+    public CameraZoomController(Context context, VideoDeviceService videoDeviceService) {
+        mCameraManager = (CameraManager) context.getSystemService(Context.CAMERA_SERVICE);
+        mVideoDeviceService = videoDeviceService;
+    }
+
+    /**
+     * Zooms the current camera towards {@code zoom}, clamped to the range of the camera.
+     */
+    public void setZoom(float zoom) {
+        ZoomCapabilities capabilities = getCurrentCapabilities();
+        if (capabilities == null) {
+            return;
+        }
+        mTargetZoom = Math.max(NO_ZOOM, Math.min(capabilities.mMaxZoom, zoom));
+        scheduleFrame();
+    }
+
+    public float getTargetZoom() {
+        return mTargetZoom;
+    }
+
+    /**
+     * @return the largest zoom of the current camera, 1 if it can't zoom or there is no camera.
+     */
+    public float getMaxZoom() {
+        ZoomCapabilities capabilities = getCurrentCapabilities();
+        return capabilities == null ? NO_ZOOM : capabilities.mMaxZoom;
+    }
+
+    /**
+     * @return zoom accepted by the camera, replays the latest value.
+     */
+    public Observable<Float> getAppliedZoom() {
+        return mAppliedZoom;
+    }
+
+    /**
+     * Goes back to no zoom without animating, e.g. before the camera is switched or closed.
+     */
+    public void reset() {
+        cancelFrame();
+        mTargetZoom = NO_ZOOM;
+        if (mCurrentZoom != NO_ZOOM) {
+            apply(NO_ZOOM);
+        }
+        mCurrentZoom = NO_ZOOM;
+        mAppliedZoom.onNext(NO_ZOOM);
+    }
+
+    public void release() {
+        cancelFrame();
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        mIsFrameScheduled = false;
+        float distance = mTargetZoom - mCurrentZoom;
+        float zoom = Math.abs(distance) < SNAP_DISTANCE ? mTargetZoom : mCurrentZoom + distance * SMOOTHING;
+        if (apply(zoom)) {
+            mCurrentZoom = zoom;
+            mAppliedZoom.onNext(zoom);
+            if (zoom != mTargetZoom) {
+                scheduleFrame();
+            }
+        }
+    }
+
+    private boolean apply(float zoom) {
+        ZoomCapabilities capabilities = getCurrentCapabilities();
+        if (capabilities == null) {
+            return false;
+        }
+        VideoDeviceService.CaptureRequestResult result;
+        if (capabilities.mUseZoomRatio && Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+            result = mVideoDeviceService.setRepeatingCaptureRequest(CaptureRequest.CONTROL_ZOOM_RATIO, zoom, null);
+        } else {
+            result = mVideoDeviceService.setRepeatingCaptureRequest(CaptureRequest.SCALER_CROP_REGION,
+                    getCropRegionForZoom(capabilities.mActiveArray, zoom), null);
+        }
+        if (!(result instanceof VideoDeviceService.CaptureRequestResult.Success)) {
+            Log.w(TAG, "Zoom " + zoom + " not applied " + result);
+            return false;
+        }
+        return true;
+    }
+
+    private void scheduleFrame() {
+        if (!mIsFrameScheduled && mTargetZoom != mCurrentZoom) {
+            mIsFrameScheduled = true;
+            mChoreographer.postFrameCallback(this);
+        }
+    }
+
+    private void cancelFrame() {
+        mIsFrameScheduled = false;
+        mChoreographer.removeFrameCallback(this);
+    }
+
+    @Nullable
+    private ZoomCapabilities getCurrentCapabilities() {
+        VideoDevice videoDevice = mVideoDeviceService.getCurrentVideoDevice().getValue();
+        if (videoDevice == null) {
+            Log.e(TAG, "No active camera device");
+            return null;
+        }
+        return getCapabilities(videoDevice.getId());
+    }
+
+    /**
+     * Reads the zoom range of the cameras not cached yet on the io scheduler, the results are cached on the main
+     * thread.
+     */
+    Completable loadCapabilities(List<String> cameraIds) {
+        List<String> missing = new ArrayList<>();
+        for (String cameraId : cameraIds) {
+            if (!mCapabilities.containsKey(cameraId)) {
+                missing.add(cameraId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return Completable.complete();
+        }
+        return Single.fromCallable(() -> {
+            Map<String, ZoomCapabilities> loaded = new HashMap<>();
+            for (String cameraId : missing) {
+                try {
+                    loaded.put(cameraId, ZoomCapabilities.from(mCameraManager.getCameraCharacteristics(cameraId)));
+                } catch (CameraAccessException | IllegalArgumentException e) {
+                    Log.e(TAG, "Failed to read characteristics of camera " + cameraId + " " + e.getMessage());
+                }
+            }
+            return loaded;
+        })
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .doOnSuccess(mCapabilities::putAll)
+                .ignoreElement();
+    }
+
+    @Nullable
+    private ZoomCapabilities getCapabilities(String cameraId) {
+        ZoomCapabilities capabilities = mCapabilities.get(cameraId);
+        if (capabilities == null) {
+            try {
+                capabilities = ZoomCapabilities.from(mCameraManager.getCameraCharacteristics(cameraId));
+                mCapabilities.put(cameraId, capabilities);
+            } catch (CameraAccessException | IllegalArgumentException e) {
+                Log.e(TAG, "Failed to read characteristics of camera " + cameraId + " " + e.getMessage());
+            }
+        }
+        return capabilities;
+    }
+
+    /**
+     * @return region of the active array, centered and scaled down by {@code zoom}.
+     */
+    private static Rect getCropRegionForZoom(Rect activeArray, float zoom) {
+        int xCenter = activeArray.width() / 2;
+        int yCenter = activeArray.height() / 2;
+        int xDelta = (int) (0.5f * activeArray.width() / zoom);
+        int yDelta = (int) (0.5f * activeArray.height() / zoom);
+        return new Rect(xCenter - xDelta, yCenter - yDelta, xCenter + xDelta, yCenter + yDelta);
+    }
+
+    static final class ZoomCapabilities {
+        final Rect mActiveArray;
+        final float mMaxZoom;
+        final boolean mUseZoomRatio;
+
+        private ZoomCapabilities(Rect activeArray, float maxZoom, boolean useZoomRatio) {
+            mActiveArray = activeArray;
+            mMaxZoom = maxZoom;
+            mUseZoomRatio = useZoomRatio;
+        }
+
+        static ZoomCapabilities from(CameraCharacteristics characteristics) {
+            Rect activeArray = characteristics.get(CameraCharacteristics.SENSOR_INFO_ACTIVE_ARRAY_SIZE);
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+                Range<Float> zoomRatioRange = characteristics.get(CameraCharacteristics.CONTROL_ZOOM_RATIO_RANGE);
+                if (zoomRatioRange != null && zoomRatioRange.getUpper() > NO_ZOOM) {
+                    return new ZoomCapabilities(activeArray, zoomRatioRange.getUpper(), true);
+                }
+            }
+            Float maxDigitalZoom = characteristics.get(CameraCharacteristics.SCALER_AVAILABLE_MAX_DIGITAL_ZOOM);
+            float maxZoom = maxDigitalZoom == null || activeArray == null ? NO_ZOOM : maxDigitalZoom;
+            return new ZoomCapabilities(activeArray, maxZoom, false);
+        }
+    }
+}
@@ -0,0 +1,304 @@
+/*
+ * Copyright (c) 2021 Blue Jeans Network, Inc. All rights reserved.
+ */
+package com.bluejeans.android.sdksample.camera;
+
+import android.content.Context;
+import android.hardware.camera2.CameraAccessException;
+import android.hardware.camera2.CameraCharacteristics;
+import android.hardware.camera2.CameraManager;
+import android.hardware.camera2.CaptureRequest;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.PowerManager;
+import android.os.SystemClock;
+import android.util.Log;
+import android.util.Range;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bluejeans.bluejeanssdk.devices.VideoDevice;
+import com.bluejeans.bluejeanssdk.devices.VideoDeviceService;
+
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.subjects.BehaviorSubject;
+import kotlin.Unit;
+
+/**
+ * Picks the capture profile of the camera from the uplink bandwidth, the thermal status and the camera's
+ * capabilities, so outgoing video degrades to a lower frame rate instead of freezing.
+ * <ul>
+ * <li>The profile steps down as soon as a limit drops, and up one rung at a time once the limits have allowed it for
+ * {@link #STEP_UP_HOLD_MS}.</li>
+ * <li>{@link #setOverride(Profile)} pins a profile until it is cleared, it is applied while the policy runs.</li>
+ * <li>The frame rate is re-applied whenever a camera is opened, the SDK starts every capture session afresh.</li>
+ * <li>A profile is only published once applied, the camera's frame rate range closest below the profile's frame rate
+ * is used. Without a camera or a fitting range the profile stays and is tried again on the next sample.</li>
+ * </ul>
+ * Runs during a meeting, from {@link #start()} to {@link #stop()}. Use from the main thread only.
+ */
+public class CaptureProfilePolicy {
+    private static final String TAG = "CaptureProfilePolicy";
+    private static final long SAMPLE_INTERVAL_MS = 10_000;
+    private static final long STEP_UP_HOLD_MS = 30_000;
+
+    /**
+     * Capture profiles, best first. The SDK captures either 720p or its default resolution.
+     */
+    public enum Profile {
+        HD_30(true, 30, 2_500),
+        SD_30(false, 30, 1_000),
+        SD_24(false, 24, 600),
+        SD_15(false, 15, 0);
+
+        private final boolean mIs720p;
+        private final int mFps;
+        private final int mMinUplinkKbps;
+
+        Profile(boolean is720p, int fps, int minUplinkKbps) {
+            mIs720p = is720p;
+            mFps = fps;
+            mMinUplinkKbps = minUplinkKbps;
+        }
+
+        public boolean is720p() {
+            return mIs720p;
+        }
+
+        public int getFps() {
+            return mFps;
+        }
+    }
+
+    private final VideoDeviceService mVideoDeviceService;
+    private final CameraManager mCameraManager;
+    private final ConnectivityManager mConnectivityManager;
+    private final PowerManager mPowerManager;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final Runnable mSample = this::sample;
+    private final BehaviorSubject<Profile> mProfile;
+    private final ConnectivityManager.NetworkCallback mNetworkCallback = new ConnectivityManager.NetworkCallback() {
+        @Override
+        public void onCapabilitiesChanged(@NonNull Network network, @NonNull NetworkCapabilities capabilities) {
+            int uplinkKbps = capabilities.getLinkUpstreamBandwidthKbps();
+            // network callbacks arrive on a binder thread
+            mHandler.post(() -> {
+                mUplinkKbps = uplinkKbps;
+                sample();
+            });
+        }
+    };
+    private Disposable mDeviceStateDisposable = null;
+    private boolean mIsStarted = false;
+    private Profile mOverride = null;
+    private int mUplinkKbps = Integer.MAX_VALUE;
+    private long mStepUpAllowedSince = 0;
+
+    public CaptureProfilePolicy(Context context, VideoDeviceService videoDeviceService) {
+        mVideoDeviceService = videoDeviceService;
+        mCameraManager = (CameraManager) context.getSystemService(Context.CAMERA_SERVICE);
+        mConnectivityManager = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        mPowerManager = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        boolean is720pEnabled = Boolean.TRUE.equals(videoDeviceService.is720pEnabled().getValue());
+        mProfile = BehaviorSubject.createDefault(is720pEnabled ? Profile.HD_30 : Profile.SD_30);
+    }
+
+    public void start() {
+        if (mIsStarted) {
+            return;
+        }
+        mIsStarted = true;
+        mStepUpAllowedSince = 0;
+        mConnectivityManager.registerDefaultNetworkCallback(mNetworkCallback);
+        mDeviceStateDisposable = mVideoDeviceService.getCurrentVideoDeviceState().subscribeOnUI(state -> {
+            if (state instanceof VideoDeviceService.VideoDeviceState.Opened) {
+                applyFrameRate(mProfile.getValue());
+            }
+            return Unit.INSTANCE;
+        }, err -> {
+            Log.e(TAG, "Error in video device state subscription " + err.getMessage());
+            return Unit.INSTANCE;
+        });
+        sample();
+    }
+
+    public void stop() {
+        if (!mIsStarted) {
+            return;
+        }
+        mIsStarted = false;
+        try {
+            mConnectivityManager.unregisterNetworkCallback(mNetworkCallback);
+        } catch (IllegalArgumentException e) {
+            Log.w(TAG, "Network callback was not registered");
+        }
+        mHandler.removeCallbacksAndMessages(null);
+        if (mDeviceStateDisposable != null) {
+            mDeviceStateDisposable.dispose();
+            mDeviceStateDisposable = null;
+        }
+    }
+
+    /**
+     * @return the profile in use, replays the latest value.
+     */
+    public Observable<Profile> getProfile() {
+        return mProfile;
+    }
+
+    /**
+     * Pins {@code profile}, null goes back to automatic selection. Kept across meetings, applied from the next
+     * {@link #start()} when the policy is not running.
+     */
+    public void setOverride(@Nullable Profile profile) {
+        mOverride = profile;
+        mStepUpAllowedSince = 0;
+        if (mIsStarted) {
+            sample();
+        }
+    }
+
+    @Nullable
+    public Profile getOverride() {
+        return mOverride;
+    }
+
+    private void sample() {
+        // a network callback may still be posted when stop() runs
+        if (!mIsStarted) {
+            return;
+        }
+        mHandler.removeCallbacks(mSample);
+        mHandler.postDelayed(mSample, SAMPLE_INTERVAL_MS);
+        if (mOverride != null) {
+            // retried on every sample until it could be applied
+            select(mOverride);
+            return;
+        }
+        Profile limit = getLimit();
+        Profile current = mProfile.getValue();
+        if (limit.ordinal() > current.ordinal()) {
+            mStepUpAllowedSince = 0;
+            select(limit);
+        } else if (limit.ordinal() < current.ordinal()) {
+            long now = SystemClock.elapsedRealtime();
+            if (mStepUpAllowedSince == 0) {
+                mStepUpAllowedSince = now;
+            } else if (now - mStepUpAllowedSince >= STEP_UP_HOLD_MS) {
+                mStepUpAllowedSince = now;
+                select(Profile.values()[current.ordinal() - 1]);
+            }
+        } else {
+            mStepUpAllowedSince = 0;
+        }
+    }
+
+    /**
+     * @return the best profile the uplink, the thermal status and the camera allow.
+     */
+    private Profile getLimit() {
+        Profile limit = Profile.SD_15;
+        for (Profile profile : Profile.values()) {
+            if (mUplinkKbps >= profile.mMinUplinkKbps) {
+                limit = profile;
+                break;
+            }
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            int thermalStatus = mPowerManager.getCurrentThermalStatus();
+            if (thermalStatus >= PowerManager.THERMAL_STATUS_SEVERE) {
+                limit = Profile.SD_15;
+            } else if (thermalStatus >= PowerManager.THERMAL_STATUS_MODERATE) {
+                limit = lower(limit, Profile.SD_24);
+            } else if (thermalStatus >= PowerManager.THERMAL_STATUS_LIGHT) {
+                limit = lower(limit, Profile.SD_30);
+            }
+        }
+        VideoDevice videoDevice = mVideoDeviceService.getCurrentVideoDevice().getValue();
+        if (videoDevice != null && !videoDevice.is720pCapable()) {
+            limit = lower(limit, Profile.SD_30);
+        }
+        return limit;
+    }
+
+    private void select(Profile profile) {
+        Profile current = mProfile.getValue();
+        if (profile == current) {
+            return;
+        }
+        Range<Integer> fpsRange = getFpsRange(profile);
+        if (fpsRange == null) {
+            Log.w(TAG, "Capture profile " + profile + " can't be applied, staying at " + current);
+            return;
+        }
+        if (profile.mIs720p != current.mIs720p) {
+            mVideoDeviceService.enable720pCapture(profile.mIs720p);
+        }
+        if (!applyFrameRate(fpsRange)) {
+            // tried again on the next sample, enabling 720p capture twice is harmless
+            Log.w(TAG, "Frame rate " + fpsRange + " of " + profile + " not applied, staying at " + current);
+            return;
+        }
+        Log.i(TAG, "Capture profile " + current + " -> " + profile + " at " + fpsRange + " fps, uplink "
+                + mUplinkKbps + " kbps");
+        mProfile.onNext(profile);
+    }
+
+    private void applyFrameRate(Profile profile) {
+        Range<Integer> fpsRange = getFpsRange(profile);
+        if (fpsRange != null) {
+            applyFrameRate(fpsRange);
+        }
+    }
+
+    private boolean applyFrameRate(Range<Integer> fpsRange) {
+        VideoDeviceService.CaptureRequestResult result = mVideoDeviceService.setRepeatingCaptureRequest(
+                CaptureRequest.CONTROL_AE_TARGET_FPS_RANGE, fpsRange, null);
+        return result instanceof VideoDeviceService.CaptureRequestResult.Success;
+    }
+
+    @Nullable
+    private Range<Integer> getFpsRange(Profile profile) {
+        VideoDevice videoDevice = mVideoDeviceService.getCurrentVideoDevice().getValue();
+        return videoDevice == null ? null : getFpsRange(videoDevice.getId(), profile.mFps);
+    }
+
+    /**
+     * @return the supported range with the highest upper bound not above {@code fps}, of those the one with the
+     * highest lower bound, for a steady frame rate.
+     */
+    @Nullable
+    private Range<Integer> getFpsRange(String cameraId, int fps) {
+        Range<Integer>[] ranges;
+        try {
+            ranges = mCameraManager.getCameraCharacteristics(cameraId)
+                    .get(CameraCharacteristics.CONTROL_AE_AVAILABLE_TARGET_FPS_RANGES);
+        } catch (CameraAccessException | IllegalArgumentException e) {
+            Log.e(TAG, "Failed to read frame rates of camera " + cameraId + " " + e.getMessage());
+            return null;
+        }
+        Range<Integer> best = null;
+        if (ranges != null) {
+            for (Range<Integer> range : ranges) {
+                if (range.getUpper() > fps) {
+                    continue;
+                }
+                if (best == null || range.getUpper() > best.getUpper()
+                        || (range.getUpper().equals(best.getUpper()) && range.getLower() > best.getLower())) {
+                    best = range;
+                }
+            }
+        }
+        return best;
+    }
+
+    private static Profile lower(Profile a, Profile b) {
+        return a.ordinal() >= b.ordinal() ? a : b;
+    }
+}
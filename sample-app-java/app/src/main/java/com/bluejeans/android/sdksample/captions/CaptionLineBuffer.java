@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2021 Blue Jeans Network, Inc. All rights reserved.
+ */
+package com.bluejeans.android.sdksample.captions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Fixed size ring buffer of finalized caption lines, once full the oldest line is overwritten.
+ * Not thread safe.
+ */
+class CaptionLineBuffer {
+    private final String[] mLines;
+    private int mHead = 0;
+    private int mSize = 0;
+
+    CaptionLineBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive, was " + capacity);
+        }
+        mLines = new String[capacity];
+    }
+
+    void add(String line) {
+        mLines[(mHead + mSize) % mLines.length] = line;
+        if (mSize < mLines.length) {
+            mSize++;
+        } else {
+            mHead = (mHead + 1) % mLines.length;
+        }
+    }
+
+    /**
+     * @return lines from oldest to latest.
+     */
+    List<String> snapshot() {
+        List<String> lines = new ArrayList<>(mSize);
+        for (int i = 0; i < mSize; i++) {
+            lines.add(mLines[(mHead + i) % mLines.length]);
+        }
+        return Collections.unmodifiableList(lines);
+    }
+
+    void clear() {
+        for (int i = 0; i < mLines.length; i++) {
+            mLines[i] = null;
+        }
+        mHead = 0;
+        mSize = 0;
+    }
+}
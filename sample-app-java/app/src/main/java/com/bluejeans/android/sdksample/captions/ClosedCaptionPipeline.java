@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2021 Blue Jeans Network, Inc. All rights reserved.
+ */
+package com.bluejeans.android.sdksample.captions;
+
+import android.text.TextUtils;
+import android.util.Log;
+import android.view.Choreographer;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import io.reactivex.rxjava3.subjects.BehaviorSubject;
+import io.reactivex.rxjava3.subjects.PublishSubject;
+import io.reactivex.rxjava3.subjects.Subject;
+
+/**
+ * Renders closed captions at most once per frame.
+ * Captions are processed off the main thread, on the thread the SDK emits them on, only the latest text is kept and it
+ * is set on the caption view on the next vsync, so the UI cost does not depend on how often the SDK revises the
+ * current hypothesis.
+ * A caption that is not a continuation of the previous one finalizes the previous one, finalized lines are kept in a
+ * bounded buffer published by {@link #getTranscript()}, copied only while someone observes it. The speaker of a line is read when the line starts, a line
+ * is only finalized once the next one has begun and by then someone else may be speaking.
+ * Must be created on the main thread.
+ */
+public class ClosedCaptionPipeline {
+    private static final String TAG = "ClosedCaptionPipeline";
+    public static final int DEFAULT_TRANSCRIPT_LINES = 100;
+
+    public static final class FinalizedLine {
+        private final String mText;
+        private final String mSpeaker;
+
+        private FinalizedLine(String text, @Nullable String speaker) {
+            mText = text;
+            mSpeaker = speaker;
+        }
+
+        public String getText() {
+            return mText;
+        }
+
+        /**
+         * @return name of the active speaker when the line started, null if nobody was speaking.
+         */
+        @Nullable
+        public String getSpeaker() {
+            return mSpeaker;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return mSpeaker + ": " + mText;
+        }
+    }
+
+    private final TextView mCaptionView;
+    private final Choreographer mChoreographer = Choreographer.getInstance();
+    private final AtomicReference<String> mPendingText = new AtomicReference<>();
+    private final AtomicBoolean mIsFrameScheduled = new AtomicBoolean(false);
+    private final Choreographer.FrameCallback mFrameCallback = this::renderFrame;
+
+    private final Supplier<String> mSpeakerSource;
+    private final Object mLineLock = new Object();
+    private final CaptionLineBuffer mFinalizedLines;
+    private String mCurrentLine = "";
+    private String mCurrentSpeaker = null;
+    // captions are finalized on the caption thread, by flush() and clear(), emitted under mLineLock so observers
+    // see lines in the order they were finalized
+    // replays to new observers, the snapshot is taken by the observer chain, not here
+    private final Subject<Boolean> mTranscriptChanges = BehaviorSubject.createDefault(Boolean.TRUE);
+    private final Subject<FinalizedLine> mFinalizedLineEvents = PublishSubject.create();
+
+    /**
+     * @param speakerSource name of the active speaker, or null, called on the caption thread.
+     */
+    public ClosedCaptionPipeline(TextView captionView, Supplier<String> speakerSource) {
+        this(captionView, speakerSource, DEFAULT_TRANSCRIPT_LINES);
+    }
+
+    public ClosedCaptionPipeline(TextView captionView, Supplier<String> speakerSource, int transcriptLines) {
+        mCaptionView = captionView;
+        mSpeakerSource = speakerSource;
+        mFinalizedLines = new CaptionLineBuffer(transcriptLines);
+    }
+
+    /**
+     * @param closedCaptionText {@link com.bluejeans.bluejeanssdk.meeting.ClosedCaptioningService#getClosedCaptionText()}
+     * @return subscription to dispose when leaving the meeting.
+     */
+    public Disposable start(Observable<String> closedCaptionText) {
+        return closedCaptionText
+                .subscribeOn(Schedulers.io())
+                .subscribe(this::onCaption, error -> Log.e(TAG, "Error closed caption subscription " + error));
+    }
+
+    /**
+     * @return latest finalized lines, oldest first, bounded to the transcript size, on subscribe and after every
+     * change. Called while the caption lock is held, observers must not block.
+     */
+    public Observable<List<String>> getTranscript() {
+        return mTranscriptChanges.map(changed -> {
+            synchronized (mLineLock) {
+                return mFinalizedLines.snapshot();
+            }
+        });
+    }
+
+    /**
+     * @return every finalized line once with its speaker, in order, on the thread captions are processed on. Called
+     * while the caption lock is held, observers must not block.
+     */
+    public Observable<FinalizedLine> getFinalizedLines() {
+        return mFinalizedLineEvents;
+    }
+
+    /**
+     * Finalizes the caption being spoken, if any.
+     */
+    public void flush() {
+        advanceLine("");
+    }
+
+    /**
+     * Clears the caption view and the transcript, call on the main thread.
+     */
+    public void clear() {
+        mChoreographer.removeFrameCallback(mFrameCallback);
+        mIsFrameScheduled.set(false);
+        mPendingText.set(null);
+        mCaptionView.setText(null);
+        synchronized (mLineLock) {
+            mCurrentLine = "";
+            mCurrentSpeaker = null;
+            mFinalizedLines.clear();
+            mTranscriptChanges.onNext(Boolean.TRUE);
+        }
+    }
+
+    private void onCaption(String text) {
+        String caption = text == null ? "" : text.trim();
+        advanceLine(caption);
+        mPendingText.set(caption);
+        if (mIsFrameScheduled.compareAndSet(false, true)) {
+            mChoreographer.postFrameCallback(mFrameCallback);
+        }
+    }
+
+    /**
+     * Makes nextLine the current line, finalizing the current one unless nextLine continues it.
+     */
+    private void advanceLine(String nextLine) {
+        synchronized (mLineLock) {
+            String finalized = mCurrentLine;
+            String speaker = mCurrentSpeaker;
+            mCurrentLine = nextLine;
+            boolean isContinuation = isContinuation(finalized, nextLine);
+            if (!nextLine.isEmpty() && (finalized.isEmpty() || !isContinuation)) {
+                mCurrentSpeaker = mSpeakerSource.get();
+            }
+            if (isContinuation) {
+                return;
+            }
+            mFinalizedLines.add(finalized);
+            mFinalizedLineEvents.onNext(new FinalizedLine(finalized, speaker));
+            mTranscriptChanges.onNext(Boolean.TRUE);
+        }
+    }
+
+    private void renderFrame(long frameTimeNanos) {
+        mIsFrameScheduled.set(false);
+        String text = mPendingText.getAndSet(null);
+        if (text != null && !TextUtils.equals(text, mCaptionView.getText())) {
+            mCaptionView.setText(text);
+        }
+    }
+
+    /**
+     * Partial hypotheses grow the previous text and may revise its last words. A caption sharing less than half of
+     * the previous one is treated as a new line.
+     */
+    static boolean isContinuation(String previous, String current) {
+        if (previous.isEmpty()) {
+            return true;
+        }
+        if (current.isEmpty()) {
+            return false;
+        }
+        int max = Math.min(previous.length(), current.length());
+        int common = 0;
+        while (common < max && previous.charAt(common) == current.charAt(common)) {
+            common++;
+        }
+        return common * 2 >= previous.length();
+    }
+}
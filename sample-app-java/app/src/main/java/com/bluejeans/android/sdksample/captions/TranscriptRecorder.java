@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2021 Blue Jeans Network, Inc. All rights reserved.
+ */
+package com.bluejeans.android.sdksample.captions;
+
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+
+/**
+ * Appends finalized captions to a transcript on disk, one directory per meeting.
+ * Every record is a line of epoch millis, speaker and text separated by tabs. Records are written to a memory mapped
+ * segment file of {@link #DEFAULT_SEGMENT_SIZE} bytes, a new segment is started when the current one is full and the
+ * oldest segment is deleted once there are more than {@link #DEFAULT_MAX_SEGMENTS}.
+ * All file work happens on the recorder thread, {@link #record(String, String)} only enqueues. The recording is
+ * independent from the meeting connection, it keeps going through reconnects until {@link #stop()} is called.
+ */
+public class TranscriptRecorder {
+    private static final String TAG = "TranscriptRecorder";
+    public static final int DEFAULT_SEGMENT_SIZE = 256 * 1024;
+    public static final int DEFAULT_MAX_SEGMENTS = 8;
+
+    private final File mRootDirectory;
+    private final int mSegmentSize;
+    private final int mMaxSegments;
+    private final ExecutorService mExecutor =
+            Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, TAG));
+
+    // accessed on the recorder thread only
+    private File mMeetingDirectory = null;
+    private boolean mIsRecording = false;
+    private final ArrayDeque<File> mSegments = new ArrayDeque<>();
+    private int mNextSegmentIndex = 0;
+    private FileChannel mChannel = null;
+    private MappedByteBuffer mBuffer = null;
+
+    public TranscriptRecorder(File rootDirectory) {
+        this(rootDirectory, DEFAULT_SEGMENT_SIZE, DEFAULT_MAX_SEGMENTS);
+    }
+
+    public TranscriptRecorder(File rootDirectory, int segmentSize, int maxSegments) {
+        mRootDirectory = rootDirectory;
+        mSegmentSize = segmentSize;
+        mMaxSegments = maxSegments;
+    }
+
+    /**
+     * Starts a new transcript, stopping the current one if any.
+     */
+    public void start(String meetingId) {
+        long startTime = System.currentTimeMillis();
+        mExecutor.execute(() -> {
+            closeSegment();
+            mSegments.clear();
+            mNextSegmentIndex = 0;
+            mMeetingDirectory = new File(mRootDirectory,
+                    meetingId.replaceAll("[^A-Za-z0-9_-]", "_") + "_" + startTime);
+            mIsRecording = mMeetingDirectory.mkdirs();
+            if (!mIsRecording) {
+                Log.e(TAG, "Unable to create " + mMeetingDirectory);
+            }
+        });
+    }
+
+    public void record(String text, @Nullable String speaker) {
+        long time = System.currentTimeMillis();
+        mExecutor.execute(() -> append(time, speaker, text));
+    }
+
+    /**
+     * Stops recording, the transcript stays available to {@link #export(File)} until the next {@link #start(String)}.
+     */
+    public void stop() {
+        mExecutor.execute(() -> {
+            mIsRecording = false;
+            closeSegment();
+        });
+    }
+
+    /**
+     * Copies the latest transcript into a single file.
+     */
+    public Single<File> export(File destination) {
+        return Single.fromCallable(() -> {
+            if (mSegments.isEmpty()) {
+                throw new IOException("No transcript recorded");
+            }
+            if (mBuffer != null) {
+                mBuffer.force();
+            }
+            try (OutputStream out = new FileOutputStream(destination)) {
+                for (File segment : mSegments) {
+                    copySegment(segment, out);
+                }
+            }
+            return destination;
+        }).subscribeOn(Schedulers.from(mExecutor));
+    }
+
+    /**
+     * Stops recording and the recorder thread.
+     */
+    public void release() {
+        stop();
+        mExecutor.shutdown();
+    }
+
+    private void append(long time, @Nullable String speaker, String text) {
+        if (!mIsRecording) {
+            return;
+        }
+        byte[] record = String.format(Locale.US, "%d\t%s\t%s\n", time, clean(speaker), clean(text))
+                .getBytes(StandardCharsets.UTF_8);
+        if (record.length > mSegmentSize) {
+            Log.w(TAG, "Dropping caption of " + record.length + " bytes");
+            return;
+        }
+        try {
+            if (mBuffer == null || mBuffer.remaining() < record.length) {
+                closeSegment();
+                openSegment();
+            }
+            mBuffer.put(record);
+        } catch (IOException e) {
+            Log.e(TAG, "Unable to write transcript " + e.getMessage());
+            closeSegment();
+        }
+    }
+
+    private void openSegment() throws IOException {
+        File segment = new File(mMeetingDirectory,
+                String.format(Locale.US, "segment-%04d.txt", mNextSegmentIndex++));
+        mChannel = new RandomAccessFile(segment, "rw").getChannel();
+        mBuffer = mChannel.map(FileChannel.MapMode.READ_WRITE, 0, mSegmentSize);
+        mSegments.addLast(segment);
+        while (mSegments.size() > mMaxSegments) {
+            File oldest = mSegments.removeFirst();
+            if (!oldest.delete()) {
+                Log.w(TAG, "Unable to delete " + oldest);
+            }
+        }
+    }
+
+    /**
+     * Trims the current segment to what was written.
+     */
+    private void closeSegment() {
+        if (mChannel == null) {
+            return;
+        }
+        try {
+            mBuffer.force();
+            mChannel.truncate(mBuffer.position());
+            mChannel.close();
+        } catch (IOException e) {
+            Log.e(TAG, "Unable to close transcript segment " + e.getMessage());
+        }
+        mChannel = null;
+        mBuffer = null;
+    }
+
+    /**
+     * Copies the segment up to the unwritten part of the mapping, which is zero filled.
+     */
+    private static void copySegment(File segment, OutputStream out) throws IOException {
+        byte[] buffer = new byte[8 * 1024];
+        try (InputStream in = new FileInputStream(segment)) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                int length = indexOfZero(buffer, read);
+                out.write(buffer, 0, length);
+                if (length < read) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static int indexOfZero(byte[] buffer, int length) {
+        for (int i = 0; i < length; i++) {
+            if (buffer[i] == 0) {
+                return i;
+            }
+        }
+        return length;
+    }
+
+    private static String clean(@Nullable String value) {
+        return value == null ? "" : value.replace('\t', ' ').replace('\n', ' ').replace('\0', ' ');
+    }
+}
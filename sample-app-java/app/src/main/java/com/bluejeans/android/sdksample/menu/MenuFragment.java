@@ -33,7 +33,8 @@ public class MenuFragment extends BottomSheetDialogFragment {
     private String mCurrentAudioDevice = "";
     private String mCurrentVideoDevice = "";
     private boolean mClosedCaptionState =  false;
-    private SwitchCompat mSwitchClosedCaption, mSwitchWaitingRoom;
+    private boolean mTranscriptState = false;
+    private SwitchCompat mSwitchClosedCaption, mSwitchWaitingRoom, mSwitchTranscript;
     private LinearLayout mWaitingRoomLayout;
 
     private Disposable mWaitingRoomEnablementDisposable;
@@ -47,6 +48,10 @@ public class MenuFragment extends BottomSheetDialogFragment {
 
         void handleClosedCaptionSwitchEvent(Boolean enabled);
 
+        void handleTranscriptSwitchEvent(boolean enabled);
+
+        void exportTranscript();
+
         void showWaitingRoom();
 
         void setWaitingRoomEnabled(boolean enabled);
@@ -103,6 +108,13 @@ public class MenuFragment extends BottomSheetDialogFragment {
         updateView();
     }
 
+    public void updateWaitingRoomEnabled(boolean isWaitingRoomEnabled) {
+        mIsWaitingRoomEnabled = isWaitingRoomEnabled;
+        if (mSwitchWaitingRoom != null) {
+            mSwitchWaitingRoom.setChecked(isWaitingRoomEnabled);
+        }
+    }
+
     public void updateClosedCaptionSwitchState(boolean isClosedCaptionActive) {
         mClosedCaptionState = isClosedCaptionActive;
     }
@@ -112,6 +124,7 @@ public class MenuFragment extends BottomSheetDialogFragment {
         mMbAudioDevice = view.findViewById(R.id.mbAudioDevice);
         mMbVideoDevice = view.findViewById(R.id.mbVideoDevice);
         mSwitchClosedCaption = view.findViewById(R.id.swClosedCaption);
+        mSwitchTranscript = view.findViewById(R.id.swTranscript);
 
         if (SampleApplication.getBlueJeansSDK().getBlueJeansClient().getMeetingSession().isModerator()) {
             mWaitingRoomLayout = view.findViewById(R.id.llWaitingRoom);
@@ -163,7 +176,7 @@ public class MenuFragment extends BottomSheetDialogFragment {
             dismiss();
         });
 
-        if (this.mIsWaitingRoomEnabled) {
+        if (this.mIsWaitingRoomEnabled && mSwitchWaitingRoom != null) {
             mSwitchWaitingRoom.setChecked(this.mIsWaitingRoomEnabled);
         }
 
@@ -183,6 +196,18 @@ public class MenuFragment extends BottomSheetDialogFragment {
             mSwitchClosedCaption.setVisibility(View.GONE);
         }
 
+        mSwitchTranscript.setChecked(mTranscriptState);
+        mSwitchTranscript.setOnCheckedChangeListener((buttonView, isChecked) -> {
+            if (buttonView.isPressed()) {
+                mIMenuCallback.handleTranscriptSwitchEvent(isChecked);
+                mTranscriptState = isChecked;
+            }
+        });
+        view.findViewById(R.id.btnExportTranscript).setOnClickListener(view1 -> {
+            mIMenuCallback.exportTranscript();
+            dismiss();
+        });
+
         updateView();
     }
 
@@ -202,5 +227,6 @@ public class MenuFragment extends BottomSheetDialogFragment {
     public void onResume() {
         super.onResume();
         mSwitchClosedCaption.setChecked(mClosedCaptionState);
+        mSwitchTranscript.setChecked(mTranscriptState);
     }
 }
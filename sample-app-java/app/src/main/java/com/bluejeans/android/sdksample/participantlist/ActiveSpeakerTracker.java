@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2021 Blue Jeans Network, Inc. All rights reserved.
+ */
+package com.bluejeans.android.sdksample.participantlist;
+
+import android.os.SystemClock;
+
+import androidx.annotation.Nullable;
+
+import com.bluejeans.bluejeanssdk.meeting.ParticipantsService;
+
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+
+/**
+ * Debounces {@link ParticipantsService#getActiveSpeaker()}, so that crosstalk and short interjections don't flip
+ * everything that follows the speaker.
+ * A new speaker is only reported after holding the floor for the hold time, and never sooner than the minimum dwell
+ * time after the previous switch. A flip back to the current speaker cancels the pending switch. Moments without
+ * an active speaker keep the last one.
+ */
+public class ActiveSpeakerTracker {
+    public static final long DEFAULT_HOLD_MS = 1_500;
+    public static final long DEFAULT_MIN_DWELL_MS = 3_000;
+
+    private final Observable<ParticipantsService.Participant> mActiveSpeaker;
+
+    public ActiveSpeakerTracker(ParticipantsService participantsService) {
+        this(participantsService, DEFAULT_HOLD_MS, DEFAULT_MIN_DWELL_MS);
+    }
+
+    public ActiveSpeakerTracker(ParticipantsService participantsService, long holdMs, long minDwellMs) {
+        // defer gives every upstream subscription its own state, so a new meeting starts without a speaker
+        mActiveSpeaker = Observable.defer(() -> {
+            SpeakerState state = new SpeakerState();
+            return participantsService.getActiveSpeaker().getRxObservable()
+                    .filter(speaker -> speaker.getValue() != null)
+                    .map(speaker -> speaker.getValue())
+                    .distinctUntilChanged(ParticipantsService.Participant::getId)
+                    .switchMap(candidate -> {
+                        if (state.isCurrent(candidate)) {
+                            return Observable.empty();
+                        }
+                        long delayMs = state.mCurrentId == null ? 0
+                                : Math.max(holdMs, state.mSwitchedAt + minDwellMs - SystemClock.elapsedRealtime());
+                        return Observable.timer(delayMs, TimeUnit.MILLISECONDS, Schedulers.computation())
+                                .map(ignored -> candidate);
+                    })
+                    .doOnNext(state::switchTo);
+        }).replay(1).refCount();
+    }
+
+    /**
+     * @return the debounced speaker, replays the current one to new subscribers.
+     */
+    public Observable<ParticipantsService.Participant> getActiveSpeaker() {
+        return mActiveSpeaker;
+    }
+
+    private static class SpeakerState {
+        // written from the timer thread, read by the next candidate
+        volatile String mCurrentId = null;
+        volatile long mSwitchedAt = 0;
+
+        boolean isCurrent(@Nullable ParticipantsService.Participant participant) {
+            return participant != null && participant.getId().equals(mCurrentId);
+        }
+
+        void switchTo(ParticipantsService.Participant participant) {
+            mSwitchedAt = SystemClock.elapsedRealtime();
+            mCurrentId = participant.getId();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2021 Blue Jeans Network, Inc. All rights reserved.
+ */
+package com.bluejeans.android.sdksample.participantlist;
+
+import androidx.annotation.Nullable;
+
+import com.bjnclientcore.inmeeting.chat.model.ChatMessage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A bounded, pageable window over the chat history of one conversation.
+ * Only the messages inside the window are handed to the adapter, at most {@link #MAX_WINDOW_SIZE} of them. The window
+ * starts with the latest {@link #PAGE_SIZE} messages, grows by a page when the user scrolls to either end and keeps
+ * following new messages while the latest message is part of it. The window is anchored on the ids of its first and
+ * last message, so messages inserted or removed before it do not shift it to other messages.
+ * Not thread safe, use it from the main thread like the chat history observables it is fed from.
+ */
+class ChatHistoryWindow {
+    static final int PAGE_SIZE = 50;
+    static final int MAX_WINDOW_SIZE = 4 * PAGE_SIZE;
+
+    private List<ChatMessage> mHistory = Collections.emptyList();
+    private int mStart = 0;
+    private int mEnd = 0;
+    @Nullable
+    private String mFirstId = null;
+    @Nullable
+    private String mLastId = null;
+    private boolean mIsLoaded = false;
+    private boolean mIsFollowingLatest = true;
+
+    void setHistory(List<ChatMessage> history) {
+        int size = history.size();
+        if (mIsLoaded) {
+            // find the anchors in the new history, a removed anchor leaves the position where it was
+            int first = indexOf(history, mFirstId, mStart);
+            int last = indexOf(history, mLastId, mEnd - 1);
+            if (first >= 0) {
+                mStart = first;
+            }
+            if (last >= 0) {
+                mEnd = last + 1;
+            }
+        }
+        mHistory = history;
+        // history may also shrink, keep the window within bounds
+        if (mIsFollowingLatest || mEnd > size) {
+            mEnd = size;
+        }
+        if (!mIsLoaded) {
+            mStart = mEnd - PAGE_SIZE;
+            mIsLoaded = true;
+        }
+        mStart = Math.max(0, Math.max(Math.min(mStart, mEnd), mEnd - MAX_WINDOW_SIZE));
+        updateAnchors();
+    }
+
+    /**
+     * @return true if older messages were added to the window.
+     */
+    boolean loadOlder() {
+        if (mStart == 0) {
+            return false;
+        }
+        mStart = Math.max(0, mStart - PAGE_SIZE);
+        if (mEnd - mStart > MAX_WINDOW_SIZE) {
+            mEnd = mStart + MAX_WINDOW_SIZE;
+            mIsFollowingLatest = false;
+        }
+        updateAnchors();
+        return true;
+    }
+
+    /**
+     * @return true if newer messages were added to the window.
+     */
+    boolean loadNewer() {
+        if (!hasNewer()) {
+            return false;
+        }
+        mEnd = Math.min(mHistory.size(), mEnd + PAGE_SIZE);
+        if (mEnd - mStart > MAX_WINDOW_SIZE) {
+            mStart = mEnd - MAX_WINDOW_SIZE;
+        }
+        updateAnchors();
+        return true;
+    }
+
+    boolean hasNewer() {
+        return mEnd < mHistory.size();
+    }
+
+    /**
+     * New messages are only added to the window while following, which is possible once the latest message is in it.
+     */
+    void setFollowingLatest(boolean followingLatest) {
+        mIsFollowingLatest = followingLatest && !hasNewer();
+    }
+
+    boolean isFollowingLatest() {
+        return mIsFollowingLatest;
+    }
+
+    List<ChatMessage> getMessages() {
+        return new ArrayList<>(mHistory.subList(mStart, mEnd));
+    }
+
+    private void updateAnchors() {
+        boolean isEmpty = mStart == mEnd;
+        mFirstId = isEmpty ? null : mHistory.get(mStart).getId();
+        mLastId = isEmpty ? null : mHistory.get(mEnd - 1).getId();
+    }
+
+    /**
+     * @return the index of the message with the given id, looked up at {@code hint} first since appending messages
+     * does not move the window, or -1.
+     */
+    private static int indexOf(List<ChatMessage> history, @Nullable String id, int hint) {
+        if (id == null) {
+            return -1;
+        }
+        if (hint >= 0 && hint < history.size() && id.equals(history.get(hint).getId())) {
+            return hint;
+        }
+        for (int i = 0; i < history.size(); i++) {
+            if (id.equals(history.get(i).getId())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
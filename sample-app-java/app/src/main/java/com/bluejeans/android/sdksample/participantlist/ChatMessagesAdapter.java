@@ -4,12 +4,16 @@
 package com.bluejeans.android.sdksample.participantlist;
 
 import android.content.Context;
+import android.util.SparseArray;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.appcompat.widget.AppCompatTextView;
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.core.widget.TextViewCompat;
 import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
@@ -17,19 +21,38 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.bjnclientcore.inmeeting.chat.model.ChatMessage;
 import com.bluejeans.android.sdksample.R;
 
-import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
 
-import kotlin.jvm.Synchronized;
+import io.reactivex.rxjava3.schedulers.Schedulers;
 
+/**
+ * Chat messages adapter, it is handed a window of the chat history (see {@link ChatHistoryWindow}) and diffs it against
+ * the current one on a background thread.
+ * Message text is measured ahead of binding with {@link PrecomputedTextCompat} on the computation scheduler, once the
+ * text metrics of a view type are known. They are read from the first view of the type attached to the window, the
+ * text direction is only resolved then and the view rejects text measured for other metrics. Binding only runs on the
+ * main thread and takes no locks.
+ */
 public class ChatMessagesAdapter extends ListAdapter<ChatMessage, ChatMessagesAdapter.ChatMessageViewHolder> {
+    private static final int VIEW_TYPE_SEND = 0;
+    private static final int VIEW_TYPE_RECEIVE = 1;
+    private static final Executor PRECOMPUTE_EXECUTOR = runnable -> Schedulers.computation().scheduleDirect(runnable);
 
-    private final ArrayList<ChatMessage> chatMessages = new ArrayList<>();
     private final boolean isChatPublic;
+    // assigned when a list is submitted, ids are never reused, stableIds only holds the messages of the window
+    private Map<String, Long> stableIds = new HashMap<>();
+    private long nextStableId = 0;
+    private final SparseArray<PrecomputedTextCompat.Params> textParams = new SparseArray<>(2);
+    private Map<String, Future<PrecomputedTextCompat>> precomputedMessages = new HashMap<>();
 
     public ChatMessagesAdapter(boolean isPublicChat, DiffUtil.ItemCallback<ChatMessage> callback) {
         super(callback);
         isChatPublic = isPublicChat;
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -37,72 +60,108 @@ public class ChatMessagesAdapter extends ListAdapter<ChatMessage, ChatMessagesAd
     public ChatMessageViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         LayoutInflater inflater = (LayoutInflater) parent.getContext().getSystemService(Context.LAYOUT_INFLATER_SERVICE);
         View itemLayoutView;
-        if (viewType == 0) {
+        if (viewType == VIEW_TYPE_SEND) {
             itemLayoutView = inflater.inflate(R.layout.layout_chat_item_send, parent, false);
         } else {
             itemLayoutView = inflater.inflate(R.layout.layout_chat_item_receive, parent, false);
         }
-        return new ChatMessageViewHolder(itemLayoutView);
+        // only received messages of the public chat need to tell who sent them
+        return new ChatMessageViewHolder(itemLayoutView, isChatPublic && viewType == VIEW_TYPE_RECEIVE);
     }
 
     @Override
-    public void onBindViewHolder(@NonNull ChatMessageViewHolder holder, int position) {
-        holder.bind(chatMessages.get(holder.getAdapterPosition()));
+    public void onViewAttachedToWindow(@NonNull ChatMessageViewHolder holder) {
+        int viewType = holder.getItemViewType();
+        if (textParams.get(viewType) == null) {
+            textParams.put(viewType, TextViewCompat.getTextMetricsParams(holder.participantMsg));
+            precomputeMessages(getCurrentList());
+        }
     }
 
     @Override
-    public int getItemCount() {
-        return chatMessages.size();
+    public void onBindViewHolder(@NonNull ChatMessageViewHolder holder, int position) {
+        holder.bind(getItem(position));
     }
 
     @Override
     public int getItemViewType(int position) {
-        if (chatMessages.get(position).getSentBySelf()) {
-            return 0;
-        } else return 1;
+        return getItem(position).getSentBySelf() ? VIEW_TYPE_SEND : VIEW_TYPE_RECEIVE;
     }
 
-    public void updateMessages(List<ChatMessage> msgs) {
-        if (msgs.isEmpty()) return;
-        if (chatMessages.isEmpty()) {
-            chatMessages.addAll(msgs);
-            notifyDataSetChanged();
-        } else {
-            int oldSize = chatMessages.size();
-            int diff = msgs.size() - oldSize;
-            chatMessages.addAll(msgs.subList(oldSize, msgs.size()));
-            notifyItemRangeInserted(oldSize, diff);
+    @Override
+    public long getItemId(int position) {
+        Long stableId = stableIds.get(getItem(position).getId());
+        return stableId != null ? stableId : RecyclerView.NO_ID;
+    }
+
+    /**
+     * @param msgs         messages to show, the list must not be modified afterwards.
+     * @param onCommitted  runs once the list is displayed.
+     */
+    public void updateMessages(List<ChatMessage> msgs, Runnable onCommitted) {
+        precomputeMessages(msgs);
+        for (ChatMessage msg : msgs) {
+            if (!stableIds.containsKey(msg.getId())) {
+                stableIds.put(msg.getId(), nextStableId++);
+            }
+        }
+        submitList(msgs, () -> {
+            // drop the text and ids of messages that left the window
+            Map<String, Future<PrecomputedTextCompat>> retained = new HashMap<>();
+            Map<String, Long> retainedIds = new HashMap<>();
+            for (ChatMessage msg : getCurrentList()) {
+                Future<PrecomputedTextCompat> text = precomputedMessages.get(msg.getId());
+                if (text != null) {
+                    retained.put(msg.getId(), text);
+                }
+                Long stableId = stableIds.get(msg.getId());
+                if (stableId != null) {
+                    retainedIds.put(msg.getId(), stableId);
+                }
+            }
+            precomputedMessages = retained;
+            stableIds = retainedIds;
+            onCommitted.run();
+        });
+    }
+
+    private void precomputeMessages(List<ChatMessage> msgs) {
+        for (ChatMessage msg : msgs) {
+            PrecomputedTextCompat.Params params =
+                    textParams.get(msg.getSentBySelf() ? VIEW_TYPE_SEND : VIEW_TYPE_RECEIVE);
+            if (params != null && !precomputedMessages.containsKey(msg.getId())) {
+                precomputedMessages.put(msg.getId(),
+                        PrecomputedTextCompat.getTextFuture(msg.getBody(), params, PRECOMPUTE_EXECUTOR));
+            }
         }
     }
 
     class ChatMessageViewHolder extends RecyclerView.ViewHolder {
         View mItemView;
         TextView participantName, participantMsg;
+        private final boolean showSenderName;
 
-        public ChatMessageViewHolder(@NonNull View itemView) {
+        public ChatMessageViewHolder(@NonNull View itemView, boolean showSenderName) {
             super(itemView);
             mItemView = itemView;
+            this.showSenderName = showSenderName;
             participantName = itemView.findViewById(R.id.tvParticipantName);
             participantMsg = itemView.findViewById(R.id.tvMessage);
+            participantName.setVisibility(showSenderName ? View.VISIBLE : View.GONE);
+            participantMsg.setVisibility(View.VISIBLE);
         }
 
-        @Synchronized
         public void bind(ChatMessage msg) {
-            synchronized (this) {
-                if (isChatPublic) {
-                    if (!msg.getSentBySelf()) {
-                        participantName.setText(msg.getSender().getName());
-                        participantName.setVisibility(View.VISIBLE);
-                    }
-                }
-                showMsg(msg);
+            if (showSenderName) {
+                participantName.setText(msg.getSender().getName());
+            }
+            Future<PrecomputedTextCompat> text = precomputedMessages.get(msg.getId());
+            // the future is consumed on measure, after attach, against the metrics of the attached view
+            if (text != null && participantMsg instanceof AppCompatTextView) {
+                ((AppCompatTextView) participantMsg).setTextFuture(text);
+            } else {
+                participantMsg.setText(msg.getBody());
             }
-        }
-
-        @Synchronized
-        private void showMsg(ChatMessage msg) {
-            participantMsg.setText(msg.getBody());
-            participantMsg.setVisibility(View.VISIBLE);
         }
     }
 
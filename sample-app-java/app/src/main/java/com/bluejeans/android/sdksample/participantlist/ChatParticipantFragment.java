@@ -28,10 +28,14 @@ import com.bluejeans.bluejeanssdk.meeting.MeetingService;
 import com.bluejeans.bluejeanssdk.meeting.ParticipantsService;
 import com.bluejeans.bluejeanssdk.meeting.chat.PrivateChatService;
 import com.bluejeans.bluejeanssdk.meeting.chat.PublicChatService;
+import com.bluejeans.rxextensions.ObservableValue;
 
-import java.util.Objects;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 import io.reactivex.rxjava3.disposables.CompositeDisposable;
+import io.reactivex.rxjava3.disposables.Disposable;
 import kotlin.Unit;
 
 public class ChatParticipantFragment extends Fragment {
@@ -47,6 +51,9 @@ public class ChatParticipantFragment extends Fragment {
     private EditText msgEditText;
     private PublicChatService publicChatService;
     private PrivateChatService privateChatService;
+    private final ChatHistoryWindow historyWindow = new ChatHistoryWindow();
+    private ObservableValue<?> privateHistoryObservable = null;
+    private Disposable privateHistoryDisposable = null;
     private final DiffUtil.ItemCallback<ChatMessage> callback = new DiffUtil.ItemCallback<ChatMessage>() {
 
         @Override
@@ -81,6 +88,7 @@ public class ChatParticipantFragment extends Fragment {
         msgList.setLayoutManager(new LinearLayoutManager(getContext(), LinearLayoutManager.VERTICAL, false));
         msgEditText = view.findViewById(R.id.etMessage);
         sendMessage = view.findViewById(R.id.ivSendMsg);
+        addHistoryPagingListener();
         subscribeForChatServiceStates();
         addSendMessageListener();
     }
@@ -158,17 +166,61 @@ public class ChatParticipantFragment extends Fragment {
     private void loadMsgsFromHistory() {
         if (remoteParticipant.getId().equals(EVERYONE)) {
             if (publicChatService.getChatHistory().getValue() != null) {
-                adapter.updateMessages(publicChatService.getChatHistory().getValue());
+                showHistory(publicChatService.getChatHistory().getValue());
             }
         } else {
-            if (Objects.requireNonNull(privateChatService.getChatHistoryByParticipant().getValue()).containsKey(remoteParticipant)) {
-                if (privateChatService.getChatHistoryByParticipant().getValue() != null && privateChatService.getChatHistoryByParticipant().getValue().get(remoteParticipant).getValue() != null) {
-                    adapter.updateMessages(privateChatService.getChatHistoryByParticipant().getValue().get(remoteParticipant).getValue());
-                }
+            Map<ParticipantsService.Participant, ObservableValue<ArrayList<ChatMessage>>> historyByParticipant =
+                    privateChatService.getChatHistoryByParticipant().getValue();
+            if (historyByParticipant != null && historyByParticipant.containsKey(remoteParticipant)
+                    && historyByParticipant.get(remoteParticipant).getValue() != null) {
+                showHistory(historyByParticipant.get(remoteParticipant).getValue());
             }
         }
     }
 
+    /**
+     * Only the window of the history around the viewport is handed to the adapter.
+     */
+    private void showHistory(List<ChatMessage> history) {
+        historyWindow.setHistory(history);
+        submitHistoryWindow(historyWindow.isFollowingLatest());
+    }
+
+    private void submitHistoryWindow(boolean scrollToLatest) {
+        if (adapter == null) {
+            return;
+        }
+        adapter.updateMessages(historyWindow.getMessages(), () -> {
+            if (scrollToLatest && adapter != null && adapter.getItemCount() > 0) {
+                msgList.smoothScrollToPosition(adapter.getItemCount() - 1);
+            }
+        });
+    }
+
+    private void addHistoryPagingListener() {
+        msgList.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy < 0 && !recyclerView.canScrollVertically(-1)) {
+                    if (historyWindow.loadOlder()) {
+                        submitHistoryWindow(false);
+                    }
+                } else if (dy > 0 && !recyclerView.canScrollVertically(1)) {
+                    if (historyWindow.loadNewer()) {
+                        submitHistoryWindow(false);
+                    }
+                }
+            }
+
+            @Override
+            public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
+                if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+                    historyWindow.setFollowingLatest(!recyclerView.canScrollVertically(1));
+                }
+            }
+        });
+    }
+
     private void attachPublicAdapter() {
         adapter = new ChatMessagesAdapter(true, callback);
         msgList.setAdapter(adapter);
@@ -182,9 +234,8 @@ public class ChatParticipantFragment extends Fragment {
     private void subscribePublicChatHistory() {
         disposable.add(publicChatService.getChatHistory().subscribeOnUI(list -> {
                     if (adapter != null && list != null) {
-                        adapter.updateMessages(list);
+                        showHistory(list);
                         publicChatService.clearUnreadMessagesCount();
-                        msgList.smoothScrollToPosition(adapter.getItemCount());
                     }
                     return Unit.INSTANCE;
                 },
@@ -198,20 +249,7 @@ public class ChatParticipantFragment extends Fragment {
         disposable.add(privateChatService.getChatHistoryByParticipant().subscribeOnUI(
                 map -> {
                     if (map != null && map.containsKey(remoteParticipant)) {
-                        disposable.add(map.get(remoteParticipant).subscribeOnUI(
-                                msgsList -> {
-                                    if (adapter != null) {
-                                        adapter.updateMessages(msgsList);
-                                        privateChatService.clearUnreadMessagesCountByParticipant(remoteParticipant);
-                                        msgList.smoothScrollToPosition(adapter.getItemCount());
-                                    }
-                                    return Unit.INSTANCE;
-                                },
-                                err -> {
-                                    Log.e(TAG, "Unable to subscribe to private chat history");
-                                    return Unit.INSTANCE;
-                                }
-                        ));
+                        subscribePrivateChatHistory(map.get(remoteParticipant));
                     }
                     return Unit.INSTANCE;
                 },
@@ -222,11 +260,41 @@ public class ChatParticipantFragment extends Fragment {
         ));
     }
 
+    /**
+     * The map is republished for every conversation, resubscribe only when this participant's history changed.
+     */
+    private void subscribePrivateChatHistory(ObservableValue<ArrayList<ChatMessage>> history) {
+        if (history == privateHistoryObservable) {
+            return;
+        }
+        if (privateHistoryDisposable != null) {
+            disposable.delete(privateHistoryDisposable);
+            privateHistoryDisposable.dispose();
+        }
+        privateHistoryObservable = history;
+        privateHistoryDisposable = history.subscribeOnUI(
+                msgsList -> {
+                    if (adapter != null && msgsList != null) {
+                        showHistory(msgsList);
+                        privateChatService.clearUnreadMessagesCountByParticipant(remoteParticipant);
+                    }
+                    return Unit.INSTANCE;
+                },
+                err -> {
+                    Log.e(TAG, "Unable to subscribe to private chat history");
+                    return Unit.INSTANCE;
+                }
+        );
+        disposable.add(privateHistoryDisposable);
+    }
+
     @Override
     public void onDestroyView() {
         // always dispose references
         publicChatService = null;
         privateChatService = null;
+        privateHistoryObservable = null;
+        privateHistoryDisposable = null;
         disposable.dispose();
         super.onDestroyView();
     }
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2021 Blue Jeans Network, Inc. All rights reserved.
+ */
+package com.bluejeans.android.sdksample.participantlist;
+
+import androidx.annotation.NonNull;
+
+import com.bluejeans.bluejeanssdk.meeting.ParticipantsService;
+
+/**
+ * A single roster change published by {@link ParticipantEventSource}.
+ * Events of one meeting carry consecutive sequence numbers starting from 1.
+ */
+public abstract class ParticipantEvent {
+    private final long mSequence;
+    private final ParticipantsService.Participant mParticipant;
+
+    ParticipantEvent(long sequence, ParticipantsService.Participant participant) {
+        mSequence = sequence;
+        mParticipant = participant;
+    }
+
+    public long getSequence() {
+        return mSequence;
+    }
+
+    /**
+     * @return latest participant object, or the last known one for {@link Left}.
+     */
+    public ParticipantsService.Participant getParticipant() {
+        return mParticipant;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{seq=" + mSequence + ", id=" + mParticipant.getId() + "}";
+    }
+
+    public static final class Joined extends ParticipantEvent {
+        Joined(long sequence, ParticipantsService.Participant participant) {
+            super(sequence, participant);
+        }
+    }
+
+    public static final class Left extends ParticipantEvent {
+        Left(long sequence, ParticipantsService.Participant participant) {
+            super(sequence, participant);
+        }
+    }
+
+    public static final class MuteStateChanged extends ParticipantEvent {
+        private final boolean mIsAudioMuted;
+        private final boolean mIsVideoMuted;
+
+        MuteStateChanged(long sequence, ParticipantsService.Participant participant, boolean isAudioMuted,
+                         boolean isVideoMuted) {
+            super(sequence, participant);
+            mIsAudioMuted = isAudioMuted;
+            mIsVideoMuted = isVideoMuted;
+        }
+
+        public boolean isAudioMuted() {
+            return mIsAudioMuted;
+        }
+
+        public boolean isVideoMuted() {
+            return mIsVideoMuted;
+        }
+    }
+
+    public static final class RoleChanged extends ParticipantEvent {
+        private final boolean mIsModerator;
+
+        RoleChanged(long sequence, ParticipantsService.Participant participant, boolean isModerator) {
+            super(sequence, participant);
+            mIsModerator = isModerator;
+        }
+
+        public boolean isModerator() {
+            return mIsModerator;
+        }
+    }
+
+    public static final class NameChanged extends ParticipantEvent {
+        private final String mName;
+
+        NameChanged(long sequence, ParticipantsService.Participant participant, String name) {
+            super(sequence, participant);
+            mName = name;
+        }
+
+        public String getName() {
+            return mName;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2021 Blue Jeans Network, Inc. All rights reserved.
+ */
+package com.bluejeans.android.sdksample.participantlist;
+
+import com.bluejeans.bluejeanssdk.meeting.ParticipantsService;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+
+/**
+ * Turns the full roster snapshots of {@link ParticipantsService#getParticipants()} into a stream of
+ * {@link ParticipantEvent}s, so that consumers only pay for what changed.
+ * Snapshots are compared on the computation scheduler. Use {@link ParticipantRoster} to rebuild the list.
+ */
+public class ParticipantEventSource {
+
+    private final Observable<ParticipantEvent> mParticipantEvents;
+
+    public ParticipantEventSource(ParticipantsService participantsService) {
+        // defer gives every subscriber its own differ, so each one starts with the Joined events and a sequence from 1
+        mParticipantEvents = Observable.defer(() -> {
+            RosterDiffer differ = new RosterDiffer();
+            return participantsService.getParticipants().getRxObservable()
+                    .filter(participants -> participants.getValue() != null)
+                    // copy on the emitting thread, the SDK keeps updating the same list instance
+                    .map(participants -> toItems(participants.getValue()))
+                    .observeOn(Schedulers.computation())
+                    .concatMapIterable(differ::diff);
+        });
+    }
+
+    /**
+     * @return roster changes, every subscriber diffs on its own. The first emissions after subscribing are a {@link
+     * ParticipantEvent.Joined} per participant already in the meeting.
+     */
+    public Observable<ParticipantEvent> getParticipantEvents() {
+        return mParticipantEvents;
+    }
+
+    private static List<ParticipantItem> toItems(List<ParticipantsService.Participant> participants) {
+        List<ParticipantItem> items = new ArrayList<>(participants.size());
+        for (ParticipantsService.Participant participant : participants) {
+            items.add(new ParticipantItem(participant));
+        }
+        return items;
+    }
+
+    static class RosterDiffer {
+        private Map<String, ParticipantItem> mPrevious = new HashMap<>();
+        private long mSequence = 0;
+
+        List<ParticipantEvent> diff(List<ParticipantItem> current) {
+            List<ParticipantEvent> events = new ArrayList<>();
+            Map<String, ParticipantItem> currentById = new HashMap<>(current.size() * 2);
+            for (ParticipantItem item : current) {
+                currentById.put(item.id, item);
+                ParticipantItem old = mPrevious.remove(item.id);
+                if (old == null) {
+                    events.add(new ParticipantEvent.Joined(++mSequence, item.participant));
+                    continue;
+                }
+                if (!Objects.equals(old.name, item.name)) {
+                    events.add(new ParticipantEvent.NameChanged(++mSequence, item.participant, item.name));
+                }
+                if (old.isAudioMuted != item.isAudioMuted || old.isVideoMuted != item.isVideoMuted) {
+                    events.add(new ParticipantEvent.MuteStateChanged(++mSequence, item.participant,
+                            item.isAudioMuted, item.isVideoMuted));
+                }
+                if (old.isModerator != item.isModerator) {
+                    events.add(new ParticipantEvent.RoleChanged(++mSequence, item.participant, item.isModerator));
+                }
+            }
+            for (ParticipantItem left : mPrevious.values()) {
+                events.add(new ParticipantEvent.Left(++mSequence, left.participant));
+            }
+            mPrevious = currentById;
+            return events;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2021 Blue Jeans Network, Inc. All rights reserved.
+ */
+package com.bluejeans.android.sdksample.participantlist;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+
+import com.bluejeans.bluejeanssdk.meeting.ParticipantsService;
+
+import java.util.Objects;
+
+/**
+ * Immutable roster row.
+ * The SDK keeps publishing the same participants list reference, so the properties shown in a row are copied
+ * when the row is created. This lets the diff compare what was rendered against what has to be rendered.
+ * Whether the row offers demoting depends on the local moderator and waiting room state, it is copied in as well so a
+ * change of that state rebinds the rows.
+ */
+final class ParticipantItem {
+    static final int PAYLOAD_NAME = 1;
+    static final int PAYLOAD_AUDIO = 1 << 1;
+    static final int PAYLOAD_VIDEO = 1 << 2;
+    static final int PAYLOAD_UNREAD_COUNT = 1 << 3;
+    static final int PAYLOAD_DEMOTE = 1 << 4;
+
+    final ParticipantsService.Participant participant;
+    final String id;
+    final String name;
+    final boolean isAudioMuted;
+    final boolean isVideoMuted;
+    final boolean isSelf;
+    final boolean isModerator;
+    final boolean canDemote;
+
+    ParticipantItem(ParticipantsService.Participant participant) {
+        this(participant, false);
+    }
+
+    ParticipantItem(ParticipantsService.Participant participant, boolean canDemote) {
+        this(participant, participant.getName(), participant.isAudioMuted(), participant.isVideoMuted(),
+                participant.isSelf(), participant.isModerator(), canDemote);
+    }
+
+    ParticipantItem(ParticipantsService.Participant participant, String name, boolean isAudioMuted,
+                    boolean isVideoMuted, boolean isSelf, boolean isModerator, boolean canDemote) {
+        this.participant = participant;
+        this.id = participant.getId();
+        this.name = name;
+        this.isAudioMuted = isAudioMuted;
+        this.isVideoMuted = isVideoMuted;
+        this.isSelf = isSelf;
+        this.isModerator = isModerator;
+        this.canDemote = canDemote;
+    }
+
+    /**
+     * @return bit mask of the PAYLOAD_* flags describing what differs between the two rows.
+     */
+    int changesFrom(ParticipantItem oldItem) {
+        int changes = 0;
+        if (!Objects.equals(name, oldItem.name)) {
+            changes |= PAYLOAD_NAME;
+        }
+        if (isAudioMuted != oldItem.isAudioMuted) {
+            changes |= PAYLOAD_AUDIO;
+        }
+        if (isVideoMuted != oldItem.isVideoMuted) {
+            changes |= PAYLOAD_VIDEO;
+        }
+        if (canDemote != oldItem.canDemote) {
+            changes |= PAYLOAD_DEMOTE;
+        }
+        return changes;
+    }
+
+    /**
+     * Rows are keyed by participant id, mute state changes are delivered as partial payloads so only the
+     * affected icon is rebound.
+     */
+    static final DiffUtil.ItemCallback<ParticipantItem> DIFF_CALLBACK = new DiffUtil.ItemCallback<ParticipantItem>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull ParticipantItem oldItem, @NonNull ParticipantItem newItem) {
+            return oldItem.id.equals(newItem.id);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull ParticipantItem oldItem, @NonNull ParticipantItem newItem) {
+            return newItem.changesFrom(oldItem) == 0 && oldItem.isSelf == newItem.isSelf;
+        }
+
+        @Nullable
+        @Override
+        public Object getChangePayload(@NonNull ParticipantItem oldItem, @NonNull ParticipantItem newItem) {
+            if (oldItem.isSelf != newItem.isSelf) {
+                // full rebind
+                return null;
+            }
+            return newItem.changesFrom(oldItem);
+        }
+    };
+}
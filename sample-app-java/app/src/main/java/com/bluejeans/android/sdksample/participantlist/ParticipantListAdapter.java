@@ -14,6 +14,7 @@ import android.widget.Button;
 import android.widget.ImageView;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 import com.bjnclientcore.inmeeting.MeetingSession;
 import com.bluejeans.android.sdksample.R;
@@ -23,18 +24,26 @@ import com.bluejeans.bluejeanssdk.meeting.ParticipantsService;
 import java.util.ArrayList;
 import java.util.List;
 
-public class ParticipantListAdapter extends RecyclerView.Adapter<ParticipantListAdapter.participantViewHolder> {
-    private final ArrayList<ParticipantsService.Participant> participantList = new ArrayList<>();
+/**
+ * Roster adapter. Lists are diffed on a background thread by {@link ListAdapter}, rows are matched by participant id
+ * and mute / name / demote changes are dispatched as partial payloads. Submit the list again when the local moderator
+ * or waiting room state changes, the demote buttons are decided when the list is submitted.
+ */
+public class ParticipantListAdapter extends ListAdapter<ParticipantItem, ParticipantListAdapter.participantViewHolder> {
+    private static final String TAG = "ParticipantListAdapter";
+
     private final Context mContext;
-    private ParticipantsService.Participant everyone = null;
+    private final ParticipantItem everyone = new ParticipantItem(new ParticipantsService.Participant(EVERYONE));
     private boolean isForChat = false;
     private ParticipantChatItemListener chatItemListener;
 
     public ParticipantListAdapter(Context context) {
+        super(ParticipantItem.DIFF_CALLBACK);
         mContext = context;
     }
 
     public ParticipantListAdapter(Context context, boolean isChat, ParticipantChatItemListener participantChatItemListener) {
+        super(ParticipantItem.DIFF_CALLBACK);
         mContext = context;
         isForChat = isChat;
         chatItemListener = participantChatItemListener;
@@ -50,33 +59,65 @@ public class ParticipantListAdapter extends RecyclerView.Adapter<ParticipantList
 
     @Override
     public void onBindViewHolder(@NonNull participantViewHolder holder, int position) {
-        holder.bind(participantList.get(position));
+        holder.bind(getItem(position));
     }
 
     @Override
-    public int getItemCount() {
-        return participantList.size();
+    public void onBindViewHolder(@NonNull participantViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        int changes = 0;
+        for (Object payload : payloads) {
+            if (payload instanceof Integer) {
+                changes |= (Integer) payload;
+            }
+        }
+        holder.bindChanges(getItem(position), changes);
     }
 
     public void updateMeetingList(List<ParticipantsService.Participant> participantList) {
-        String TAG = "ParticipantListAdapter";
         Log.d(TAG, "updateMeetingList participantList " + participantList.size());
-        this.participantList.clear();
-        if (isForChat && !participantList.contains(everyone)) {
-            everyone = new ParticipantsService.Participant(EVERYONE);
-            this.participantList.add(everyone);
+        // The SDK republishes the same list reference, a new list is needed for the differ to pick up changes.
+        List<ParticipantItem> items = new ArrayList<>(participantList.size() + 1);
+        if (isForChat) {
+            items.add(everyone);
+        }
+        boolean canDemote = !isForChat && canDemoteParticipants();
+        for (ParticipantsService.Participant participant : participantList) {
+            /*
+              You are not shown in the people chat list. By default 'Every one' is added in the chat list which is
+              basically public chat list item.
+             */
+            if (isForChat && participant.isSelf()) {
+                continue;
+            }
+            items.add(new ParticipantItem(participant, canDemote && !participant.isSelf()));
         }
-        this.participantList.addAll(participantList);
-         /*
-           If you are the only participant in the meeting, will not be shown in the people
-           chat list.By default 'Every one' is added in the chat list which is basically
-           public chat list item.
-         */
-        if (isForChat && this.participantList.size() >= 2) {
-            // remove self participant
-            this.participantList.remove(1);
+        submitList(items);
+    }
+
+    /**
+     * Rebinds only the unread count of the row of the given participant.
+     */
+    public void notifyUnreadCountChanged(String participantId) {
+        List<ParticipantItem> items = getCurrentList();
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i).id.equals(participantId)) {
+                notifyItemChanged(i, ParticipantItem.PAYLOAD_UNREAD_COUNT);
+                return;
+            }
         }
-        notifyDataSetChanged();
+    }
+
+    private static boolean canDemoteParticipants() {
+        ModeratorWaitingRoomService moderatorWaitingRoomService = SampleApplication.getBlueJeansSDK()
+                .getMeetingService().getModeratorWaitingRoomService();
+        MeetingSession meetingSession = SampleApplication.getBlueJeansSDK().getBlueJeansClient().getMeetingSession();
+        return moderatorWaitingRoomService != null
+                && Boolean.TRUE.equals(moderatorWaitingRoomService.isWaitingRoomEnabled().getValue())
+                && meetingSession != null && meetingSession.isModerator();
     }
 
     class participantViewHolder extends RecyclerView.ViewHolder {
@@ -99,40 +140,69 @@ public class ParticipantListAdapter extends RecyclerView.Adapter<ParticipantList
             mBtnDemote = itemView.findViewById(R.id.btnDemote);
         }
 
-        public void bind(ParticipantsService.Participant participant) {
-            if (participant.getId().equals(EVERYONE)) {
+        public void bind(ParticipantItem item) {
+            ParticipantsService.Participant participant = item.participant;
+            if (item.id.equals(EVERYONE)) {
                 mParticipantName.setText(EVERYONE);
             } else {
-                mParticipantName.setText(participant.getName());
+                mParticipantName.setText(item.name);
             }
-            mAudioState.setSelected(participant.isAudioMuted());
-            mVideoState.setSelected(participant.isVideoMuted());
+            mAudioState.setSelected(item.isAudioMuted);
+            mVideoState.setSelected(item.isVideoMuted);
             if (isForChat) {
                 mAudioState.setVisibility(View.GONE);
                 mVideoState.setVisibility(View.GONE);
                 mChatArrow.setVisibility(View.VISIBLE);
-                chatItemListener.onMessageCountChange(participant, mUnreadCount);
+                bindUnreadCount(item);
                 mChatArrow.setOnClickListener(v -> chatItemListener.onParticipantClick(participant));
             } else {
                 mAudioState.setVisibility(View.VISIBLE);
                 mVideoState.setVisibility(View.VISIBLE);
                 mChatArrow.setVisibility(View.GONE);
             }
+            bindDemote(item);
+        }
 
-            ModeratorWaitingRoomService moderatorWaitingRoomService = SampleApplication.getBlueJeansSDK()
-                    .getMeetingService().getModeratorWaitingRoomService();
-            MeetingSession meetingSession = SampleApplication.getBlueJeansSDK().getBlueJeansClient().getMeetingSession();
+        public void bindChanges(ParticipantItem item, int changes) {
+            if ((changes & ParticipantItem.PAYLOAD_NAME) != 0 && !item.id.equals(EVERYONE)) {
+                mParticipantName.setText(item.name);
+            }
+            if ((changes & ParticipantItem.PAYLOAD_AUDIO) != 0) {
+                mAudioState.setSelected(item.isAudioMuted);
+            }
+            if ((changes & ParticipantItem.PAYLOAD_VIDEO) != 0) {
+                mVideoState.setSelected(item.isVideoMuted);
+            }
+            if ((changes & ParticipantItem.PAYLOAD_UNREAD_COUNT) != 0 && isForChat) {
+                bindUnreadCount(item);
+            }
+            if ((changes & ParticipantItem.PAYLOAD_DEMOTE) != 0) {
+                bindDemote(item);
+            }
+        }
 
-            if (!participant.isSelf() && !isForChat && moderatorWaitingRoomService != null
-                    && moderatorWaitingRoomService.isWaitingRoomEnabled().getValue() != null && moderatorWaitingRoomService.isWaitingRoomEnabled().getValue()
-                    && meetingSession != null && meetingSession.isModerator() == true) {
+        private void bindDemote(ParticipantItem item) {
+            if (item.canDemote) {
+                mBtnDemote.setVisibility(View.VISIBLE);
                 mBtnDemote.setOnClickListener(v -> {
                     SampleApplication.getBlueJeansSDK().getMeetingService().getModeratorWaitingRoomService().demote(
-                            participant
+                            item.participant
                     );
                 });
             } else {
                 mBtnDemote.setVisibility(View.GONE);
+                mBtnDemote.setOnClickListener(null);
+            }
+        }
+
+        private void bindUnreadCount(ParticipantItem item) {
+            int count = chatItemListener.getUnreadCount(item.participant);
+            if (count > 0) {
+                mUnreadCount.setVisibility(View.VISIBLE);
+                String countString = " " + count;
+                mUnreadCount.setText(countString);
+            } else {
+                mUnreadCount.setVisibility(View.GONE);
             }
         }
     }
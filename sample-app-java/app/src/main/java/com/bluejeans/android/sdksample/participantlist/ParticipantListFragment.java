@@ -50,7 +50,7 @@ public class ParticipantListFragment extends Fragment implements ParticipantChat
     private ImageView chatIcon, closeIcon, peopleIcon;
     private TextView unreadChatText, titleText;
     static final String EVERYONE = "Everyone";
-    private final ArrayList<ParticipantsService.Participant> participantsList = new ArrayList<>();
+    private List<ParticipantsService.Participant> participantsList = new ArrayList<>();
     private CompositeDisposable chatDisposable = null;
     private CompositeDisposable participantDisposable = null;
     CompositeDisposable countDisposable = new CompositeDisposable();
@@ -58,6 +58,7 @@ public class ParticipantListFragment extends Fragment implements ParticipantChat
     private int totalCount = 0;
     private PublicChatService publicChatService = null;
     private PrivateChatService privateChatService = null;
+    private UnreadCountIndex unreadCountIndex = null;
 
     @Nullable
     @Override
@@ -97,6 +98,7 @@ public class ParticipantListFragment extends Fragment implements ParticipantChat
             countDisposable.dispose();
         }
         // important to dispose the references or avoid using them
+        unreadCountIndex = null;
         publicChatService = null;
         privateChatService = null;
         selectedView = FragmentView.PARTICIPANT_LIST;
@@ -104,12 +106,8 @@ public class ParticipantListFragment extends Fragment implements ParticipantChat
     }
 
     @Override
-    public void onMessageCountChange(ParticipantsService.Participant participant, TextView mUnreadCount) {
-        if (participant.getId().equals(EVERYONE)) {
-            subscribeToPublicChatForCount(mUnreadCount);
-        } else {
-            subscribeToPrivateChatForParticipantCount(participant, mUnreadCount);
-        }
+    public int getUnreadCount(ParticipantsService.Participant participant) {
+        return unreadCountIndex == null ? 0 : unreadCountIndex.getCount(participant.getId());
     }
 
     @Override
@@ -132,12 +130,14 @@ public class ParticipantListFragment extends Fragment implements ParticipantChat
         selectedView = FragmentView.CHAT_VIEW;
     }
 
+    /**
+     * @param participantList roster snapshot, it is kept by reference and must not be modified afterwards.
+     */
     public void updateMeetingList(List<ParticipantsService.Participant> participantList) {
         if (participantListAdapter != null && selectedView == FragmentView.PARTICIPANT_LIST) {
             participantListAdapter.updateMeetingList(participantList);
         }
-        participantsList.clear();
-        participantsList.addAll(participantList);
+        participantsList = participantList;
     }
 
     private void addClickListeners() {
@@ -234,6 +234,12 @@ public class ParticipantListFragment extends Fragment implements ParticipantChat
     private void loadChatAdapter() {
         participantListAdapter = new ParticipantListAdapter(getContext(), true, this);
         participantListView.setAdapter(participantListAdapter);
+        unreadCountIndex = new UnreadCountIndex(publicChatService, privateChatService, (participantId, count) -> {
+            if (participantListAdapter != null && selectedView != FragmentView.PARTICIPANT_LIST) {
+                participantListAdapter.notifyUnreadCountChanged(participantId);
+            }
+        });
+        chatDisposable.add(unreadCountIndex);
         if (privateChatService != null) {
             chatDisposable.add(privateChatService.getEligibleParticipants().subscribeOnUI(list -> {
                 if (list != null) {
@@ -291,55 +297,4 @@ public class ParticipantListFragment extends Fragment implements ParticipantChat
             Log.e(TAG, "Value of public chat service = " + publicChatService + " and private chat service" + privateChatService);
         }
     }
-
-    private void subscribeToPublicChatForCount(TextView unreadCount) {
-        if (publicChatService != null) {
-            chatDisposable.add(publicChatService.getUnreadMessagesCount().subscribeOnUI(
-                    count -> {
-                        if (count > 0) {
-                            unreadCount.setVisibility(View.VISIBLE);
-                            String countString = " " + count;
-                            unreadCount.setText(countString);
-                        } else {
-                            unreadCount.setVisibility(View.GONE);
-                        }
-                        return Unit.INSTANCE;
-                    }, err -> {
-                        Log.e(TAG, "Error subscribing to public chat count");
-                        unreadCount.setVisibility(View.GONE);
-                        return Unit.INSTANCE;
-                    }
-            ));
-        }
-    }
-
-    private void subscribeToPrivateChatForParticipantCount(ParticipantsService.Participant participant, TextView unreadCount) {
-        if (privateChatService != null) {
-            chatDisposable.add(privateChatService.getUnreadCountForParticipant().subscribeOnUI(
-                    map -> {
-                        if (map.containsKey(participant)) {
-                            chatDisposable.add(map.get(participant).subscribeOnUI(count -> {
-                                if (count > 0) {
-                                    unreadCount.setVisibility(View.VISIBLE);
-                                    String countString = " " + count;
-                                    unreadCount.setText(countString);
-                                } else {
-                                    unreadCount.setVisibility(View.GONE);
-                                }
-                                return Unit.INSTANCE;
-                            }, err -> {
-                                Log.e(TAG, "Error subscribing to private chat count");
-                                unreadCount.setVisibility(View.GONE);
-                                return Unit.INSTANCE;
-                            }));
-                        }
-                        return Unit.INSTANCE;
-                    }, err -> {
-                        Log.e(TAG, "Error subscribing to private chat participant count map");
-                        unreadCount.setVisibility(View.GONE);
-                        return Unit.INSTANCE;
-                    }
-            ));
-        }
-    }
 }
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2021 Blue Jeans Network, Inc. All rights reserved.
+ */
+package com.bluejeans.android.sdksample.participantlist;
+
+import android.util.Log;
+
+import com.bluejeans.bluejeanssdk.meeting.ParticipantsService;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Rebuilds the participants list from {@link ParticipantEvent}s. Applying an event is O(1), a list is only built
+ * when {@link #getSnapshot()} is called. Participants are kept in the order they joined.
+ * Not thread safe, apply events and read snapshots from one thread.
+ */
+public class ParticipantRoster {
+    private static final String TAG = "ParticipantRoster";
+
+    private final LinkedHashMap<String, ParticipantsService.Participant> mParticipants = new LinkedHashMap<>();
+    private long mLastSequence = 0;
+
+    /**
+     * @return true if the roster changed, false if the event was already applied.
+     */
+    public boolean apply(ParticipantEvent event) {
+        if (event.getSequence() <= mLastSequence) {
+            return false;
+        }
+        if (event.getSequence() != mLastSequence + 1) {
+            Log.w(TAG, "Missed events " + (mLastSequence + 1) + " to " + (event.getSequence() - 1));
+        }
+        mLastSequence = event.getSequence();
+        ParticipantsService.Participant participant = event.getParticipant();
+        if (event instanceof ParticipantEvent.Left) {
+            mParticipants.remove(participant.getId());
+        } else {
+            // re-putting an existing key keeps its position
+            mParticipants.put(participant.getId(), participant);
+        }
+        return true;
+    }
+
+    public List<ParticipantsService.Participant> getSnapshot() {
+        return Collections.unmodifiableList(new ArrayList<>(mParticipants.values()));
+    }
+
+    /**
+     * @return true if a participant other than the local one has video on.
+     */
+    public boolean hasRemoteVideo() {
+        for (ParticipantsService.Participant participant : mParticipants.values()) {
+            if (!participant.isSelf() && !participant.isVideoMuted()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return mParticipants.size();
+    }
+
+    public void clear() {
+        mParticipants.clear();
+        mLastSequence = 0;
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2021 Blue Jeans Network, Inc. All rights reserved.
+ */
+package com.bluejeans.android.sdksample.participantlist;
+
+import static com.bluejeans.android.sdksample.participantlist.ParticipantListFragment.EVERYONE;
+
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import com.bluejeans.bluejeanssdk.meeting.ParticipantsService;
+import com.bluejeans.bluejeanssdk.meeting.chat.PrivateChatService;
+import com.bluejeans.bluejeanssdk.meeting.chat.PublicChatService;
+import com.bluejeans.rxextensions.ObservableValue;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import io.reactivex.rxjava3.disposables.CompositeDisposable;
+import io.reactivex.rxjava3.disposables.Disposable;
+import kotlin.Unit;
+
+/**
+ * Unread chat message counts keyed by participant id, the public chat count is kept under {@link
+ * ParticipantListFragment#EVERYONE}.
+ * There is one subscription to the unread count map of {@link PrivateChatService} and at most one subscription per
+ * participant present in that map, no matter how often rows are bound. A participant whose count is replaced by a new
+ * {@link ObservableValue} is resubscribed to the new one. Counts are read with {@link #getCount(String)}
+ * and changes are reported to the {@link Listener} on the main thread.
+ */
+class UnreadCountIndex implements Disposable {
+    private static final String TAG = "UnreadCountIndex";
+
+    interface Listener {
+        void onUnreadCountChanged(String participantId, int count);
+    }
+
+    private final Map<String, Integer> mCounts = new HashMap<>();
+    private final Map<String, CountSubscription> mParticipantSubscriptions = new HashMap<>();
+    private final CompositeDisposable mDisposable = new CompositeDisposable();
+    private final Listener mListener;
+
+    UnreadCountIndex(@Nullable PublicChatService publicChatService, @Nullable PrivateChatService privateChatService,
+                     Listener listener) {
+        mListener = listener;
+        if (publicChatService != null) {
+            subscribeToPublicCount(publicChatService);
+        }
+        if (privateChatService != null) {
+            subscribeToPrivateCounts(privateChatService);
+        }
+    }
+
+    int getCount(String participantId) {
+        Integer count = mCounts.get(participantId);
+        return count == null ? 0 : count;
+    }
+
+    @Override
+    public void dispose() {
+        mDisposable.dispose();
+        for (CountSubscription subscription : mParticipantSubscriptions.values()) {
+            subscription.mDisposable.dispose();
+        }
+        mParticipantSubscriptions.clear();
+        mCounts.clear();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return mDisposable.isDisposed();
+    }
+
+    private void subscribeToPublicCount(PublicChatService publicChatService) {
+        mDisposable.add(publicChatService.getUnreadMessagesCount().subscribeOnUI(
+                count -> {
+                    updateCount(EVERYONE, count);
+                    return Unit.INSTANCE;
+                }, err -> {
+                    Log.e(TAG, "Error subscribing to public chat count");
+                    return Unit.INSTANCE;
+                }));
+    }
+
+    private void subscribeToPrivateCounts(PrivateChatService privateChatService) {
+        mDisposable.add(privateChatService.getUnreadCountForParticipant().subscribeOnUI(
+                map -> {
+                    if (map != null && !isDisposed()) {
+                        onParticipantCountsChanged(map);
+                    }
+                    return Unit.INSTANCE;
+                }, err -> {
+                    Log.e(TAG, "Error subscribing to private chat participant count map");
+                    return Unit.INSTANCE;
+                }));
+    }
+
+    /**
+     * Subscribes to participants new to the map and drops the ones no longer in it. Participants that stay in the map
+     * keep their existing subscription unless the map now holds a different {@link ObservableValue} for them.
+     */
+    private void onParticipantCountsChanged(Map<ParticipantsService.Participant, ObservableValue<Integer>> map) {
+        Set<String> ids = new HashSet<>();
+        for (Map.Entry<ParticipantsService.Participant, ObservableValue<Integer>> entry : map.entrySet()) {
+            String id = entry.getKey().getId();
+            ObservableValue<Integer> source = entry.getValue();
+            ids.add(id);
+            CountSubscription subscription = mParticipantSubscriptions.get(id);
+            if (subscription != null && subscription.mSource == source) {
+                continue;
+            }
+            if (subscription != null) {
+                subscription.mDisposable.dispose();
+            }
+            mParticipantSubscriptions.put(id, new CountSubscription(source, source.subscribeOnUI(
+                    count -> {
+                        updateCount(id, count);
+                        return Unit.INSTANCE;
+                    }, err -> {
+                        Log.e(TAG, "Error subscribing to private chat count");
+                        return Unit.INSTANCE;
+                    })));
+        }
+        Iterator<Map.Entry<String, CountSubscription>> iterator = mParticipantSubscriptions.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, CountSubscription> entry = iterator.next();
+            if (!ids.contains(entry.getKey())) {
+                entry.getValue().mDisposable.dispose();
+                iterator.remove();
+                updateCount(entry.getKey(), 0);
+            }
+        }
+    }
+
+    private void updateCount(String participantId, @Nullable Integer count) {
+        int newCount = count == null ? 0 : count;
+        if (getCount(participantId) == newCount) {
+            return;
+        }
+        if (newCount == 0) {
+            mCounts.remove(participantId);
+        } else {
+            mCounts.put(participantId, newCount);
+        }
+        mListener.onUnreadCountChanged(participantId, newCount);
+    }
+
+    private static final class CountSubscription {
+        final ObservableValue<Integer> mSource;
+        final Disposable mDisposable;
+
+        CountSubscription(ObservableValue<Integer> source, Disposable disposable) {
+            mSource = source;
+            mDisposable = disposable;
+        }
+    }
+}
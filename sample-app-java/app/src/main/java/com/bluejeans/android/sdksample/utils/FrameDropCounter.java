@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2021 Blue Jeans Network, Inc. All rights reserved.
+ */
+package com.bluejeans.android.sdksample.utils;
+
+import android.content.Context;
+import android.hardware.display.DisplayManager;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.view.Display;
+import android.view.FrameMetrics;
+import android.view.Window;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the frames a window draws and the ones that took longer than a refresh period, i.e. frames the user saw
+ * drop, from the frame metrics the system reports. Nothing runs while the window doesn't draw, and the reports are
+ * handled on a background thread, so the main thread is never woken for counting. Video rendered to surfaces is not
+ * part of the window's frames.
+ * <ul>
+ * <li>One instance is meant to be shared, counting runs while at least one {@link #start()} is not matched by a
+ * {@link #stop()}.</li>
+ * <li>The counts only grow, every reader keeps the values of its previous read and takes the difference.</li>
+ * <li>The refresh period is read from the display on start, so 90 and 120 Hz panels are counted right.</li>
+ * </ul>
+ * Start and stop from the main thread, the counts can be read from any thread.
+ */
+public final class FrameDropCounter implements Window.OnFrameMetricsAvailableListener {
+    private static final float DEFAULT_REFRESH_RATE = 60f;
+
+    private final Window mWindow;
+    private final DisplayManager mDisplayManager;
+    private final AtomicLong mFrames = new AtomicLong();
+    private final AtomicLong mDropped = new AtomicLong();
+    private HandlerThread mThread = null;
+    private volatile long mFrameDeadlineNanos;
+    private int mStarts = 0;
+
+    public FrameDropCounter(Window window) {
+        mWindow = window;
+        mDisplayManager = (DisplayManager) window.getContext().getSystemService(Context.DISPLAY_SERVICE);
+    }
+
+    public void start() {
+        if (mStarts++ > 0) {
+            return;
+        }
+        Display display = mDisplayManager.getDisplay(Display.DEFAULT_DISPLAY);
+        float refreshRate = display == null || display.getRefreshRate() <= 0
+                ? DEFAULT_REFRESH_RATE : display.getRefreshRate();
+        mFrameDeadlineNanos = (long) (1_000_000_000L / refreshRate);
+        mThread = new HandlerThread("FrameDropCounter");
+        mThread.start();
+        mWindow.addOnFrameMetricsAvailableListener(this, new Handler(mThread.getLooper()));
+    }
+
+    public void stop() {
+        if (mStarts == 0 || --mStarts > 0) {
+            return;
+        }
+        mWindow.removeOnFrameMetricsAvailableListener(this);
+        mThread.quitSafely();
+        mThread = null;
+    }
+
+    /**
+     * @return frames drawn so far.
+     */
+    public long getFrames() {
+        return mFrames.get();
+    }
+
+    /**
+     * @return dropped frames counted so far.
+     */
+    public long getDropped() {
+        return mDropped.get();
+    }
+
+    @Override
+    public void onFrameMetricsAvailable(Window window, FrameMetrics frameMetrics, int dropCountSinceLastInvocation) {
+        // reports the system couldn't deliver are frames we know nothing about, they are not counted
+        mFrames.incrementAndGet();
+        if (frameMetrics.getMetric(FrameMetrics.FIRST_DRAW_FRAME) == 1) {
+            // the first frame of a window inflates and lays out everything, it is slow by nature
+            return;
+        }
+        if (frameMetrics.getMetric(FrameMetrics.TOTAL_DURATION) > mFrameDeadlineNanos) {
+            mDropped.incrementAndGet();
+        }
+    }
+}
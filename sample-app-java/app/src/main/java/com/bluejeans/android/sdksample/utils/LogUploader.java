@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2021 Blue Jeans Network, Inc. All rights reserved.
+ */
+package com.bluejeans.android.sdksample.utils;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.bluejeans.bluejeanssdk.logging.LoggingService;
+import com.bluejeans.bluejeanssdk.logging.LoggingService.LogUploadResult;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import io.reactivex.rxjava3.subjects.BehaviorSubject;
+
+/**
+ * Uploads logs through {@link LoggingService#uploadLog(String, String)} so a flaky network doesn't lose them.
+ * <ul>
+ * <li>A failed or timed out attempt is retried with exponential backoff, up to {@link #MAX_RETRIES} times.</li>
+ * <li>{@link LogUploadResult.AlreadyUploading} waits for the upload in progress and tries again, it doesn't count
+ * as a failure and is reported as {@link Status#WAITING_FOR_OTHER_UPLOAD}, not as a retry.</li>
+ * <li>Asking for an upload while one is in progress joins it instead of starting another.</li>
+ * </ul>
+ * The progress is reported by {@link #getState()}. Use from the main thread only.
+ */
+public class LogUploader {
+    private static final String TAG = "LogUploader";
+    private static final long ATTEMPT_TIMEOUT_MS = 120_000;
+    private static final long INITIAL_BACKOFF_MS = 2_000;
+    private static final long MAX_BACKOFF_MS = 30_000;
+    private static final int MAX_RETRIES = 4;
+    private static final long ALREADY_UPLOADING_POLL_MS = 5_000;
+    private static final int MAX_ALREADY_UPLOADING_POLLS = 24;
+
+    public enum Status {
+        IDLE,
+        UPLOADING,
+        /**
+         * An attempt failed or timed out, the next one is made after a backoff.
+         */
+        WAITING_FOR_RETRY,
+        /**
+         * Another upload is in progress, e.g. one whose attempt timed out, polled until it is done.
+         */
+        WAITING_FOR_OTHER_UPLOAD,
+        SUCCEEDED,
+        FAILED
+    }
+
+    public static final class State {
+        private final Status mStatus;
+        private final int mAttempt;
+
+        private State(Status status, int attempt) {
+            mStatus = status;
+            mAttempt = attempt;
+        }
+
+        public Status getStatus() {
+            return mStatus;
+        }
+
+        /**
+         * @return attempt being made or waited for, 1 for the first one.
+         */
+        public int getAttempt() {
+            return mAttempt;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "State{" + mStatus + ", attempt " + mAttempt + "}";
+        }
+    }
+
+    private final LoggingService mLoggingService;
+    private final BehaviorSubject<State> mState = BehaviorSubject.createDefault(new State(Status.IDLE, 0));
+    private Single<LogUploadResult> mInFlight = null;
+
+    public LogUploader(LoggingService loggingService) {
+        mLoggingService = loggingService;
+    }
+
+    /**
+     * @return result of the upload on the main thread, never an error. Only {@link LogUploadResult.Success} means
+     * the logs were uploaded.
+     */
+    public Single<LogUploadResult> upload(String comments, String userName) {
+        if (mInFlight != null) {
+            Log.i(TAG, "Joining the upload in progress");
+            return mInFlight;
+        }
+        AtomicInteger attempt = new AtomicInteger(0);
+        AtomicInteger polls = new AtomicInteger(0);
+        mInFlight = Single.defer(() -> {
+            publish(Status.UPLOADING, attempt.incrementAndGet());
+            return mLoggingService.uploadLog(comments, userName);
+        })
+                .subscribeOn(Schedulers.io())
+                .timeout(ATTEMPT_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                .flatMap(result -> result == LogUploadResult.Success.INSTANCE ? Single.just(result)
+                        : Single.<LogUploadResult>error(new UploadResultException(result)))
+                .retryWhen(errors -> errors.flatMap(error -> {
+                    if (isAlreadyUploading(error)) {
+                        if (polls.incrementAndGet() > MAX_ALREADY_UPLOADING_POLLS) {
+                            return Flowable.error(error);
+                        }
+                        // the attempt that found another upload running doesn't count
+                        attempt.decrementAndGet();
+                        Log.i(TAG, "Another log upload is in progress, polling in " + ALREADY_UPLOADING_POLL_MS
+                                + " ms");
+                        publish(Status.WAITING_FOR_OTHER_UPLOAD, attempt.get());
+                        return Flowable.timer(ALREADY_UPLOADING_POLL_MS, TimeUnit.MILLISECONDS);
+                    }
+                    int retries = attempt.get();
+                    if (retries > MAX_RETRIES) {
+                        return Flowable.error(error);
+                    }
+                    long delayMs = Math.min(MAX_BACKOFF_MS, INITIAL_BACKOFF_MS << (retries - 1));
+                    Log.w(TAG, "Log upload attempt " + retries + " failed " + error + ", retrying in "
+                            + delayMs + " ms");
+                    publish(Status.WAITING_FOR_RETRY, retries + 1);
+                    return Flowable.timer(delayMs, TimeUnit.MILLISECONDS);
+                }))
+                .onErrorReturn(error -> {
+                    Log.e(TAG, "Log upload failed after " + attempt.get() + " attempts " + error);
+                    return error instanceof UploadResultException ? ((UploadResultException) error).mResult
+                            : LogUploadResult.Failed.INSTANCE;
+                })
+                .observeOn(AndroidSchedulers.mainThread())
+                .doOnSuccess(result -> {
+                    mInFlight = null;
+                    mState.onNext(new State(result == LogUploadResult.Success.INSTANCE ? Status.SUCCEEDED
+                            : Status.FAILED, attempt.get()));
+                })
+                .cache();
+        return mInFlight;
+    }
+
+    /**
+     * @return state of the latest upload, replays the latest value on the main thread.
+     */
+    public Observable<State> getState() {
+        return mState;
+    }
+
+    public boolean isUploading() {
+        return mInFlight != null;
+    }
+
+    private void publish(Status status, int attempt) {
+        AndroidSchedulers.mainThread().scheduleDirect(() -> mState.onNext(new State(status, attempt)));
+    }
+
+    private static boolean isAlreadyUploading(Throwable error) {
+        return error instanceof UploadResultException
+                && ((UploadResultException) error).mResult == LogUploadResult.AlreadyUploading.INSTANCE;
+    }
+
+    private static final class UploadResultException extends Exception {
+        private final LogUploadResult mResult;
+
+        UploadResultException(LogUploadResult result) {
+            super("Upload result " + result);
+            mResult = result;
+        }
+    }
+}
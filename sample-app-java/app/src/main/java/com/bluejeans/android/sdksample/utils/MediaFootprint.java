@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2021 Blue Jeans Network, Inc. All rights reserved.
+ */
+package com.bluejeans.android.sdksample.utils;
+
+import android.os.Debug;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Locale;
+
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+
+/**
+ * Memory and video decoder footprint of the process, to compare display modes such as full screen and
+ * picture-in-picture.
+ * The SDK does not expose its decoders, each {@link android.media.MediaCodec} instance runs a looper thread in the
+ * app process, so those threads are counted instead.
+ */
+public final class MediaFootprint {
+    private static final String TAG = "MediaFootprint";
+    private static final String CODEC_THREAD_PREFIX = "CodecLooper";
+
+    private final String mLabel;
+    private final int mCodecThreads;
+    private final int mTotalPssKb;
+    private final int mNativeHeapKb;
+    private final int mGraphicsKb;
+
+    private MediaFootprint(String label, int codecThreads, int totalPssKb, int nativeHeapKb, int graphicsKb) {
+        mLabel = label;
+        mCodecThreads = codecThreads;
+        mTotalPssKb = totalPssKb;
+        mNativeHeapKb = nativeHeapKb;
+        mGraphicsKb = graphicsKb;
+    }
+
+    /**
+     * Measures on the io scheduler, reading the memory stats takes tens of milliseconds.
+     */
+    public static Single<MediaFootprint> measure(String label) {
+        return Single.fromCallable(() -> {
+            Debug.MemoryInfo memoryInfo = new Debug.MemoryInfo();
+            Debug.getMemoryInfo(memoryInfo);
+            return new MediaFootprint(label, countCodecThreads(), memoryInfo.getTotalPss(),
+                    parseKb(memoryInfo.getMemoryStat("summary.native-heap")),
+                    parseKb(memoryInfo.getMemoryStat("summary.graphics")));
+        }).subscribeOn(Schedulers.io());
+    }
+
+    public String getLabel() {
+        return mLabel;
+    }
+
+    public int getCodecThreads() {
+        return mCodecThreads;
+    }
+
+    public int getTotalPssKb() {
+        return mTotalPssKb;
+    }
+
+    public int getNativeHeapKb() {
+        return mNativeHeapKb;
+    }
+
+    public int getGraphicsKb() {
+        return mGraphicsKb;
+    }
+
+    private static int countCodecThreads() {
+        File[] tasks = new File("/proc/self/task").listFiles();
+        if (tasks == null) {
+            return -1;
+        }
+        int count = 0;
+        for (File task : tasks) {
+            try (BufferedReader reader = new BufferedReader(new FileReader(new File(task, "comm")))) {
+                String name = reader.readLine();
+                if (name != null && name.startsWith(CODEC_THREAD_PREFIX)) {
+                    count++;
+                }
+            } catch (IOException e) {
+                // the thread exited while listing
+                Log.v(TAG, "Skipping task " + task.getName());
+            }
+        }
+        return count;
+    }
+
+    private static int parseKb(String value) {
+        try {
+            return value == null ? -1 : Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "%s: codec threads %d, pss %d kB, native heap %d kB, graphics %d kB",
+                mLabel, mCodecThreads, mTotalPssKb, mNativeHeapKb, mGraphicsKb);
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2021 Blue Jeans Network, Inc. All rights reserved.
+ */
+package com.bluejeans.android.sdksample.utils;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.bluejeans.rxextensions.ObservableValueWithOptional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.disposables.Disposable;
+
+/**
+ * Keyed subscriptions to SDK streams, delivered on the main thread and scoped to a {@link LifecycleOwner}.
+ * <ul>
+ * <li>Subscribing again with a key that is already registered is a no-op, so re-running setup code never stacks up
+ * subscriptions.</li>
+ * <li>While the owner is stopped only the latest value of each stream is kept, it is delivered on start. Use it for
+ * state streams and for events where only the latest one matters.</li>
+ * <li>All subscriptions are disposed when the owner is destroyed.</li>
+ * </ul>
+ * {@link #getStats()} reports the live subscriptions with their emission counts and rates for debugging.
+ * Use from the main thread only.
+ */
+public class SubscriptionRegistry implements LifecycleEventObserver {
+    private static final String TAG = "SubscriptionRegistry";
+
+    public interface ValueListener<T> {
+        void onValue(@Nullable T value);
+    }
+
+    private final String mName;
+    private final Map<String, Entry<?>> mEntries = new LinkedHashMap<>();
+    private boolean mIsStarted;
+
+    public SubscriptionRegistry(String name, LifecycleOwner owner) {
+        mName = name;
+        mIsStarted = owner.getLifecycle().getCurrentState().isAtLeast(Lifecycle.State.STARTED);
+        owner.getLifecycle().addObserver(this);
+    }
+
+    /**
+     * Subscribes to {@link ObservableValueWithOptional#getRxObservable()}, the listener gets the unwrapped value.
+     *
+     * @return false if the key was already registered.
+     */
+    public <T> boolean observe(String key, ObservableValueWithOptional<T> value, ValueListener<T> listener) {
+        Entry<T> entry = register(key, listener);
+        if (entry == null) {
+            return false;
+        }
+        entry.mDisposable = value.getRxObservable()
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(optional -> entry.onEmission(optional.getValue()), entry::onError);
+        return true;
+    }
+
+    /**
+     * @return false if the key was already registered.
+     */
+    public <T> boolean observe(String key, Observable<T> stream, ValueListener<T> listener) {
+        Entry<T> entry = register(key, listener);
+        if (entry == null) {
+            return false;
+        }
+        entry.mDisposable = stream
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(entry::onEmission, entry::onError);
+        return true;
+    }
+
+    public void remove(String key) {
+        Entry<?> entry = mEntries.remove(key);
+        if (entry != null) {
+            entry.dispose();
+        }
+    }
+
+    public void clear() {
+        for (Entry<?> entry : mEntries.values()) {
+            entry.dispose();
+        }
+        mEntries.clear();
+    }
+
+    public int getSubscriptionCount() {
+        return mEntries.size();
+    }
+
+    public List<StreamStats> getStats() {
+        long now = SystemClock.elapsedRealtime();
+        List<StreamStats> stats = new ArrayList<>(mEntries.size());
+        for (Entry<?> entry : mEntries.values()) {
+            stats.add(new StreamStats(entry, now));
+        }
+        return stats;
+    }
+
+    public void logStats() {
+        Log.d(TAG, mName + ": " + mEntries.size() + " subscriptions, started " + mIsStarted);
+        for (StreamStats stats : getStats()) {
+            Log.d(TAG, mName + ": " + stats);
+        }
+    }
+
+    @Override
+    public void onStateChanged(@NonNull LifecycleOwner source, @NonNull Lifecycle.Event event) {
+        switch (event) {
+            case ON_START:
+                mIsStarted = true;
+                // a listener may remove entries, iterate over a copy
+                for (Entry<?> entry : new ArrayList<>(mEntries.values())) {
+                    entry.deliverPending();
+                }
+                break;
+            case ON_STOP:
+                mIsStarted = false;
+                break;
+            case ON_DESTROY:
+                clear();
+                source.getLifecycle().removeObserver(this);
+                break;
+            default:
+        }
+    }
+
+    @Nullable
+    private <T> Entry<T> register(String key, ValueListener<T> listener) {
+        Entry<?> existing = mEntries.get(key);
+        if (existing != null) {
+            existing.mDuplicateRequests++;
+            return null;
+        }
+        Entry<T> entry = new Entry<>(key, listener);
+        mEntries.put(key, entry);
+        return entry;
+    }
+
+    private final class Entry<T> {
+        final String mKey;
+        final ValueListener<T> mListener;
+        final long mSubscribedAt = SystemClock.elapsedRealtime();
+        Disposable mDisposable;
+        long mEmissions = 0;
+        long mDelivered = 0;
+        int mDuplicateRequests = 0;
+        boolean mHasPending = false;
+        T mPending = null;
+
+        Entry(String key, ValueListener<T> listener) {
+            mKey = key;
+            mListener = listener;
+        }
+
+        void onEmission(@Nullable T value) {
+            mEmissions++;
+            if (mIsStarted) {
+                deliver(value);
+            } else {
+                mPending = value;
+                mHasPending = true;
+            }
+        }
+
+        void onError(Throwable error) {
+            Log.e(TAG, mName + ": error in " + mKey + " " + error.getMessage());
+        }
+
+        void deliverPending() {
+            if (mHasPending) {
+                T value = mPending;
+                mPending = null;
+                mHasPending = false;
+                deliver(value);
+            }
+        }
+
+        void deliver(@Nullable T value) {
+            mDelivered++;
+            mListener.onValue(value);
+        }
+
+        void dispose() {
+            if (mDisposable != null) {
+                mDisposable.dispose();
+            }
+            mPending = null;
+            mHasPending = false;
+        }
+    }
+
+    public static final class StreamStats {
+        private final String mKey;
+        private final long mEmissions;
+        private final long mDelivered;
+        private final int mDuplicateRequests;
+        private final float mEmissionsPerSecond;
+
+        private StreamStats(Entry<?> entry, long now) {
+            mKey = entry.mKey;
+            mEmissions = entry.mEmissions;
+            mDelivered = entry.mDelivered;
+            mDuplicateRequests = entry.mDuplicateRequests;
+            long ageMillis = Math.max(1, now - entry.mSubscribedAt);
+            mEmissionsPerSecond = entry.mEmissions * 1000f / ageMillis;
+        }
+
+        public String getKey() {
+            return mKey;
+        }
+
+        public long getEmissions() {
+            return mEmissions;
+        }
+
+        /**
+         * @return emissions handed to the listener, the rest were replaced by a later value while stopped.
+         */
+        public long getDelivered() {
+            return mDelivered;
+        }
+
+        public int getDuplicateRequests() {
+            return mDuplicateRequests;
+        }
+
+        public float getEmissionsPerSecond() {
+            return mEmissionsPerSecond;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%s emitted %d (%.2f/s), delivered %d, duplicate requests %d",
+                    mKey, mEmissions, mEmissionsPerSecond, mDelivered, mDuplicateRequests);
+        }
+    }
+}
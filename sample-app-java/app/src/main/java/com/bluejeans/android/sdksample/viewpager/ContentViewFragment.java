@@ -15,7 +15,13 @@ import androidx.fragment.app.Fragment;
 import com.bluejeans.android.sdksample.R;
 import com.bluejeans.android.sdksample.SampleApplication;
 
+/**
+ * Remote content with pinch to zoom and pan, the zoom is kept when the page is recreated.
+ */
 public class ContentViewFragment extends Fragment {
+    private static final String KEY_ZOOM_STATE = "zoomState";
+
+    private ZoomableFrameLayout mContentView;
 
     @Nullable
     @Override
@@ -26,9 +32,27 @@ public class ContentViewFragment extends Fragment {
     @Override
     public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
+        mContentView = view.findViewById(R.id.contentView);
+        if (savedInstanceState != null) {
+            mContentView.setZoomState(savedInstanceState.getFloatArray(KEY_ZOOM_STATE));
+        }
         getChildFragmentManager()
                 .beginTransaction()
                 .replace(R.id.contentView, SampleApplication.getBlueJeansSDK().getMeetingService().getRemoteContentFragment())
                 .commit();
     }
+
+    @Override
+    public void onSaveInstanceState(@NonNull Bundle outState) {
+        super.onSaveInstanceState(outState);
+        if (mContentView != null) {
+            outState.putFloatArray(KEY_ZOOM_STATE, mContentView.getZoomState());
+        }
+    }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        mContentView = null;
+    }
 }
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2021 Blue Jeans Network, Inc. All rights reserved.
+ */
+package com.bluejeans.android.sdksample.viewpager;
+
+import android.content.Context;
+import android.util.AttributeSet;
+import android.view.GestureDetector;
+import android.view.MotionEvent;
+import android.view.ScaleGestureDetector;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Pinch to zoom, drag to pan and double tap to toggle zoom over its children.
+ * The zoom is applied as scale and translation of the children's render nodes, the renderer inside keeps drawing
+ * at its own size and the transform is done when composing, no frame is decoded or copied again.
+ * While zoomed, drags are kept from the parent so panning doesn't swipe the pager.
+ */
+public class ZoomableFrameLayout extends FrameLayout {
+    private static final float MIN_SCALE = 1f;
+    private static final float MAX_SCALE = 4f;
+    private static final float DOUBLE_TAP_SCALE = 2.5f;
+
+    private final ScaleGestureDetector mScaleDetector;
+    private final GestureDetector mGestureDetector;
+    private float mScale = MIN_SCALE;
+    private float mTranslationX = 0;
+    private float mTranslationY = 0;
+    // focus as a fraction of the pannable range, set when restoring before the size is known
+    private float[] mPendingState = null;
+
+    public ZoomableFrameLayout(@NonNull Context context) {
+        this(context, null);
+    }
+
+    public ZoomableFrameLayout(@NonNull Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+        mScaleDetector = new ScaleGestureDetector(context, new ScaleGestureDetector.SimpleOnScaleGestureListener() {
+            @Override
+            public boolean onScale(ScaleGestureDetector detector) {
+                zoomTo(mScale * detector.getScaleFactor(), detector.getFocusX(), detector.getFocusY());
+                return true;
+            }
+        });
+        mGestureDetector = new GestureDetector(context, new GestureDetector.SimpleOnGestureListener() {
+            @Override
+            public boolean onScroll(MotionEvent e1, MotionEvent e2, float distanceX, float distanceY) {
+                if (mScale == MIN_SCALE || mScaleDetector.isInProgress()) {
+                    return false;
+                }
+                panTo(mTranslationX - distanceX, mTranslationY - distanceY);
+                return true;
+            }
+
+            @Override
+            public boolean onDoubleTap(MotionEvent e) {
+                zoomTo(mScale > MIN_SCALE ? MIN_SCALE : DOUBLE_TAP_SCALE, e.getX(), e.getY());
+                return true;
+            }
+        });
+    }
+
+    @Override
+    public boolean dispatchTouchEvent(MotionEvent event) {
+        mScaleDetector.onTouchEvent(event);
+        mGestureDetector.onTouchEvent(event);
+        if (getParent() != null && (mScale > MIN_SCALE || mScaleDetector.isInProgress())) {
+            getParent().requestDisallowInterceptTouchEvent(true);
+        }
+        super.dispatchTouchEvent(event);
+        // keep receiving the gesture even if no child wants it
+        return true;
+    }
+
+    /**
+     * @return scale and the pan position as fractions of the pannable range, to restore with {@link
+     * #setZoomState(float[])}.
+     */
+    public float[] getZoomState() {
+        if (mPendingState != null) {
+            return mPendingState.clone();
+        }
+        return new float[]{mScale, toFraction(mTranslationX, getWidth()), toFraction(mTranslationY, getHeight())};
+    }
+
+    public void setZoomState(@Nullable float[] state) {
+        if (state == null || state.length != 3) {
+            return;
+        }
+        if (getWidth() == 0 || getHeight() == 0) {
+            mPendingState = state.clone();
+            return;
+        }
+        applyState(state);
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        if (w == 0 || h == 0) {
+            return;
+        }
+        // keep the same part of the content in view, e.g. across a rotation
+        float[] state = mPendingState != null ? mPendingState
+                : new float[]{mScale, toFraction(mTranslationX, oldw), toFraction(mTranslationY, oldh)};
+        mPendingState = null;
+        applyState(state);
+    }
+
+    @Override
+    public void onViewAdded(View child) {
+        super.onViewAdded(child);
+        applyTransform(child);
+    }
+
+    private void applyState(float[] state) {
+        mScale = clampScale(state[0]);
+        panTo(-state[1] * getWidth() * (mScale - 1), -state[2] * getHeight() * (mScale - 1));
+    }
+
+    private void zoomTo(float scale, float focusX, float focusY) {
+        float newScale = clampScale(scale);
+        float factor = newScale / mScale;
+        mScale = newScale;
+        // keep the content under the focus point in place
+        panTo(focusX - (focusX - mTranslationX) * factor, focusY - (focusY - mTranslationY) * factor);
+    }
+
+    private void panTo(float translationX, float translationY) {
+        mTranslationX = clamp(translationX, getWidth() * (1 - mScale), 0);
+        mTranslationY = clamp(translationY, getHeight() * (1 - mScale), 0);
+        for (int i = 0; i < getChildCount(); i++) {
+            applyTransform(getChildAt(i));
+        }
+    }
+
+    private void applyTransform(View child) {
+        child.setPivotX(0);
+        child.setPivotY(0);
+        child.setScaleX(mScale);
+        child.setScaleY(mScale);
+        child.setTranslationX(mTranslationX);
+        child.setTranslationY(mTranslationY);
+    }
+
+    private float toFraction(float translation, int size) {
+        float range = size * (mScale - 1);
+        return range <= 0 ? 0 : -translation / range;
+    }
+
+    private static float clampScale(float scale) {
+        return clamp(scale, MIN_SCALE, MAX_SCALE);
+    }
+
+    private static float clamp(float value, float min, float max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
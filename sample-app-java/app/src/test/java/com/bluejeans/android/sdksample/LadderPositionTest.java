@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2021 Blue Jeans Network, Inc. All rights reserved.
+ */
+package com.bluejeans.android.sdksample;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class LadderPositionTest {
+
+    @Test
+    public void stepsCountFromTheCeiling() {
+        LadderPosition position = new LadderPosition(2);
+        position.setCeiling(1);
+
+        assertEquals(1, position.getLevel());
+        assertTrue(position.step(1));
+        assertEquals(0, position.getLevel());
+    }
+
+    @Test
+    public void stepsDoNotPileUpBelowTheFloor() {
+        LadderPosition position = new LadderPosition(2);
+        position.setCeiling(0);
+
+        assertFalse(position.step(1));
+        assertFalse(position.step(1));
+        assertEquals(0, position.getSteps());
+
+        // leaving the constraint is not held back by steps nobody saw
+        position.setCeiling(2);
+        assertEquals(2, position.getLevel());
+    }
+
+    @Test
+    public void stepsStopAtTheBottom() {
+        LadderPosition position = new LadderPosition(2);
+
+        assertTrue(position.step(1));
+        assertTrue(position.step(1));
+        assertFalse(position.step(1));
+        assertEquals(0, position.getLevel());
+        assertEquals(2, position.getSteps());
+    }
+
+    @Test
+    public void stepsUpStopAtTheCeiling() {
+        LadderPosition position = new LadderPosition(2);
+        position.step(1);
+
+        assertTrue(position.step(-1));
+        assertFalse(position.step(-1));
+        assertEquals(2, position.getLevel());
+    }
+
+    @Test
+    public void loweringTheCeilingDropsStepsBeyondIt() {
+        LadderPosition position = new LadderPosition(2);
+        position.step(1);
+        position.step(1);
+        position.setCeiling(1);
+
+        assertEquals(1, position.getSteps());
+        assertEquals(0, position.getLevel());
+        assertTrue(position.step(-1));
+        assertEquals(1, position.getLevel());
+    }
+
+    @Test
+    public void raisingTheCeilingKeepsSteps() {
+        LadderPosition position = new LadderPosition(1);
+        position.step(1);
+        position.setCeiling(2);
+
+        assertEquals(1, position.getLevel());
+    }
+
+    @Test
+    public void resetReturnsToTheCeiling() {
+        LadderPosition position = new LadderPosition(2);
+        position.step(1);
+        position.reset();
+
+        assertEquals(2, position.getLevel());
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2021 Blue Jeans Network, Inc. All rights reserved.
+ */
+package com.bluejeans.android.sdksample;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class RingIndexTest {
+
+    @Test
+    public void slotsFollowWritesUntilFull() {
+        RingIndex ring = new RingIndex(3);
+        assertEquals(0, ring.next());
+        ring.advance();
+        ring.advance();
+
+        assertEquals(2, ring.size());
+        assertEquals(2, ring.next());
+        assertEquals(0, ring.slot(0));
+        assertEquals(1, ring.slot(1));
+    }
+
+    @Test
+    public void oldestSlotIsOverwrittenOnceFull() {
+        RingIndex ring = new RingIndex(3);
+        for (int i = 0; i < 5; i++) {
+            ring.advance();
+        }
+
+        assertEquals(3, ring.size());
+        assertEquals(2, ring.next());
+        // writes went to slots 0 1 2 0 1, the oldest remaining one is in slot 2
+        assertEquals(2, ring.slot(0));
+        assertEquals(0, ring.slot(1));
+        assertEquals(1, ring.slot(2));
+    }
+
+    @Test
+    public void latestIsTheSlotWrittenLast() {
+        RingIndex ring = new RingIndex(4);
+        for (int i = 0; i < 10; i++) {
+            int written = ring.next();
+            ring.advance();
+            assertEquals(written, ring.slot(ring.size() - 1));
+        }
+    }
+
+    @Test
+    public void clearStartsOver() {
+        RingIndex ring = new RingIndex(3);
+        ring.advance();
+        ring.advance();
+        ring.clear();
+
+        assertEquals(0, ring.size());
+        assertEquals(0, ring.next());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void indexPastSizeIsRejected() {
+        RingIndex ring = new RingIndex(3);
+        ring.advance();
+        ring.slot(1);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void negativeIndexIsRejected() {
+        RingIndex ring = new RingIndex(3);
+        ring.advance();
+        ring.slot(-1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void capacityMustBePositive() {
+        new RingIndex(0);
+    }
+}
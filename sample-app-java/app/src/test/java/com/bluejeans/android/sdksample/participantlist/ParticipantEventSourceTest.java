@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2021 Blue Jeans Network, Inc. All rights reserved.
+ */
+package com.bluejeans.android.sdksample.participantlist;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.bluejeans.bluejeanssdk.meeting.ParticipantsService;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class ParticipantEventSourceTest {
+
+    @Test
+    public void firstSnapshotJoinsEveryone() {
+        ParticipantEventSource.RosterDiffer differ = new ParticipantEventSource.RosterDiffer();
+
+        List<ParticipantEvent> events = differ.diff(Arrays.asList(item("alice"), item("bob")));
+
+        assertEquals(2, events.size());
+        assertTrue(events.get(0) instanceof ParticipantEvent.Joined);
+        assertEquals("alice", events.get(0).getParticipant().getId());
+        assertTrue(events.get(1) instanceof ParticipantEvent.Joined);
+        assertEquals("bob", events.get(1).getParticipant().getId());
+    }
+
+    @Test
+    public void unchangedSnapshotEmitsNothing() {
+        ParticipantEventSource.RosterDiffer differ = new ParticipantEventSource.RosterDiffer();
+        differ.diff(Arrays.asList(item("alice"), item("bob")));
+
+        assertTrue(differ.diff(Arrays.asList(item("alice"), item("bob"))).isEmpty());
+    }
+
+    @Test
+    public void everyChangedPropertyIsOneEvent() {
+        ParticipantEventSource.RosterDiffer differ = new ParticipantEventSource.RosterDiffer();
+        differ.diff(Collections.singletonList(item("alice")));
+
+        List<ParticipantEvent> events = differ.diff(Collections.singletonList(
+                item("alice", "Alice B", true, false, true)));
+
+        assertEquals(3, events.size());
+        ParticipantEvent.NameChanged nameChanged = (ParticipantEvent.NameChanged) events.get(0);
+        assertEquals("Alice B", nameChanged.getName());
+        ParticipantEvent.MuteStateChanged muteStateChanged = (ParticipantEvent.MuteStateChanged) events.get(1);
+        assertTrue(muteStateChanged.isAudioMuted());
+        assertFalse(muteStateChanged.isVideoMuted());
+        ParticipantEvent.RoleChanged roleChanged = (ParticipantEvent.RoleChanged) events.get(2);
+        assertTrue(roleChanged.isModerator());
+    }
+
+    @Test
+    public void missingParticipantLeaves() {
+        ParticipantEventSource.RosterDiffer differ = new ParticipantEventSource.RosterDiffer();
+        differ.diff(Arrays.asList(item("alice"), item("bob")));
+
+        List<ParticipantEvent> events = differ.diff(Collections.singletonList(item("alice")));
+
+        assertEquals(1, events.size());
+        assertTrue(events.get(0) instanceof ParticipantEvent.Left);
+        assertEquals("bob", events.get(0).getParticipant().getId());
+    }
+
+    @Test
+    public void sequenceHasNoGapsAcrossSnapshots() {
+        ParticipantEventSource.RosterDiffer differ = new ParticipantEventSource.RosterDiffer();
+        List<ParticipantEvent> events = new ArrayList<>();
+        events.addAll(differ.diff(Arrays.asList(item("alice"), item("bob"))));
+        events.addAll(differ.diff(Collections.<ParticipantItem>emptyList()));
+        events.addAll(differ.diff(Collections.singletonList(item("carol", "carol", true, true, false))));
+        events.addAll(differ.diff(Collections.singletonList(item("carol"))));
+
+        assertEquals(6, events.size());
+        for (int i = 0; i < events.size(); i++) {
+            assertEquals(i + 1, events.get(i).getSequence());
+        }
+    }
+
+    @Test
+    public void rosterRebuiltFromEventsMatchesTheSnapshot() {
+        ParticipantEventSource.RosterDiffer differ = new ParticipantEventSource.RosterDiffer();
+        ParticipantRoster roster = new ParticipantRoster();
+        List<List<ParticipantItem>> snapshots = Arrays.asList(
+                Arrays.asList(item("alice"), item("bob")),
+                Arrays.asList(item("alice"), item("bob"), item("carol")),
+                Arrays.asList(item("alice", "alice", true, false, false), item("carol")),
+                Collections.singletonList(item("carol")));
+
+        for (List<ParticipantItem> snapshot : snapshots) {
+            for (ParticipantEvent event : differ.diff(snapshot)) {
+                assertTrue(roster.apply(event));
+            }
+            List<String> expected = new ArrayList<>();
+            for (ParticipantItem item : snapshot) {
+                expected.add(item.id);
+            }
+            List<String> actual = new ArrayList<>();
+            for (ParticipantsService.Participant participant : roster.getSnapshot()) {
+                actual.add(participant.getId());
+            }
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void rosterSkipsTheGapOfALostEvent() {
+        ParticipantEventSource.RosterDiffer differ = new ParticipantEventSource.RosterDiffer();
+        ParticipantRoster roster = new ParticipantRoster();
+        for (ParticipantEvent event : differ.diff(Collections.singletonList(item("alice")))) {
+            roster.apply(event);
+        }
+        // the Joined of bob is lost, the Joined of carol still applies
+        differ.diff(Arrays.asList(item("alice"), item("bob")));
+        for (ParticipantEvent event : differ.diff(Arrays.asList(item("alice"), item("bob"), item("carol")))) {
+            assertTrue(roster.apply(event));
+        }
+
+        assertEquals(2, roster.size());
+        assertEquals("carol", roster.getSnapshot().get(1).getId());
+    }
+
+    private static ParticipantItem item(String id) {
+        return item(id, id, false, false, false);
+    }
+
+    private static ParticipantItem item(String id, String name, boolean isAudioMuted, boolean isVideoMuted,
+                                        boolean isModerator) {
+        return new ParticipantItem(new ParticipantsService.Participant(id), name, isAudioMuted, isVideoMuted,
+                false, isModerator, false);
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2021 Blue Jeans Network, Inc. All rights reserved.
+ */
+package com.bluejeans.android.sdksample.participantlist;
+
+import static org.junit.Assert.assertEquals;
+
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListUpdateCallback;
+
+import com.bluejeans.bluejeanssdk.meeting.ParticipantsService;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Replays a churn trace of a 500 participant meeting through {@link ParticipantItem#DIFF_CALLBACK} the way
+ * {@link androidx.recyclerview.widget.AsyncListDiffer} does, and checks the dispatched updates turn every roster into
+ * the next one with as few rebinds as the changes need. The diff time is reported, frame time needs a device.
+ */
+public class ParticipantItemChurnTest {
+    private static final int PARTICIPANTS = 500;
+    private static final int STEPS = 200;
+
+    @Test
+    public void muteToggleRebindsOneIcon() {
+        List<ParticipantItem> oldItems = roster(PARTICIPANTS);
+        List<ParticipantItem> newItems = new ArrayList<>(oldItems);
+        ParticipantItem item = oldItems.get(250);
+        newItems.set(250, copy(item, item.name, !item.isAudioMuted, item.isVideoMuted));
+
+        RecordingCallback updates = dispatch(oldItems, newItems);
+
+        assertEquals(0, updates.mInserted + updates.mRemoved + updates.mMoved);
+        assertEquals(1, updates.mChanged);
+        assertEquals(ParticipantItem.PAYLOAD_AUDIO, updates.mLastPayload);
+    }
+
+    @Test
+    public void unchangedRosterDispatchesNothing() {
+        List<ParticipantItem> oldItems = roster(PARTICIPANTS);
+
+        RecordingCallback updates = dispatch(oldItems, new ArrayList<>(oldItems));
+
+        assertEquals(0, updates.mInserted + updates.mRemoved + updates.mMoved + updates.mChanged);
+    }
+
+    @Test
+    public void churnTraceTurnsEveryRosterIntoTheNext() {
+        Random random = new Random(42);
+        List<ParticipantItem> items = roster(PARTICIPANTS);
+        int nextId = PARTICIPANTS;
+        long diffNanos = 0;
+        for (int step = 0; step < STEPS; step++) {
+            List<ParticipantItem> next = new ArrayList<>(items);
+            int mutes = 1 + random.nextInt(10);
+            int changes = 0;
+            for (int i = 0; i < mutes; i++) {
+                int index = random.nextInt(next.size());
+                ParticipantItem item = next.get(index);
+                next.set(index, copy(item, item.name, !item.isAudioMuted, random.nextBoolean() != item.isVideoMuted));
+            }
+            if (random.nextInt(4) == 0) {
+                next.remove(random.nextInt(next.size()));
+            }
+            if (random.nextInt(4) == 0) {
+                next.add(item("p" + nextId++));
+            }
+            if (random.nextInt(10) == 0) {
+                // a rejoin goes to the end of the roster
+                next.add(next.remove(random.nextInt(next.size())));
+            }
+            for (int i = 0; i < next.size(); i++) {
+                ParticipantItem item = next.get(i);
+                int index = indexOf(items, item.id);
+                if (index >= 0 && item.changesFrom(items.get(index)) != 0) {
+                    changes++;
+                }
+            }
+
+            long start = System.nanoTime();
+            RecordingCallback updates = dispatch(items, next);
+            diffNanos += System.nanoTime() - start;
+
+            assertEquals(ids(next), updates.apply(ids(items), next));
+            assertEquals(changes, updates.mChanged);
+            items = next;
+        }
+        System.out.println("Diffed " + STEPS + " rosters of about " + PARTICIPANTS + " participants, "
+                + diffNanos / STEPS / 1_000 + " us per roster");
+    }
+
+    private static RecordingCallback dispatch(List<ParticipantItem> oldItems, List<ParticipantItem> newItems) {
+        DiffUtil.DiffResult result = DiffUtil.calculateDiff(new DiffUtil.Callback() {
+            @Override
+            public int getOldListSize() {
+                return oldItems.size();
+            }
+
+            @Override
+            public int getNewListSize() {
+                return newItems.size();
+            }
+
+            @Override
+            public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+                return ParticipantItem.DIFF_CALLBACK.areItemsTheSame(oldItems.get(oldItemPosition),
+                        newItems.get(newItemPosition));
+            }
+
+            @Override
+            public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+                return ParticipantItem.DIFF_CALLBACK.areContentsTheSame(oldItems.get(oldItemPosition),
+                        newItems.get(newItemPosition));
+            }
+
+            @Nullable
+            @Override
+            public Object getChangePayload(int oldItemPosition, int newItemPosition) {
+                return ParticipantItem.DIFF_CALLBACK.getChangePayload(oldItems.get(oldItemPosition),
+                        newItems.get(newItemPosition));
+            }
+        });
+        RecordingCallback updates = new RecordingCallback();
+        result.dispatchUpdatesTo(updates);
+        return updates;
+    }
+
+    /**
+     * Records the updates and replays them on a list of ids, as the adapter's rows would see them.
+     */
+    private static final class RecordingCallback implements ListUpdateCallback {
+        private final List<Runnable> mOperations = new ArrayList<>();
+        private List<String> mRows;
+        private int mInserted;
+        private int mRemoved;
+        private int mMoved;
+        private int mChanged;
+        private Object mLastPayload;
+
+        @Override
+        public void onInserted(int position, int count) {
+            mInserted += count;
+            mOperations.add(() -> {
+                for (int i = 0; i < count; i++) {
+                    mRows.add(position, null);
+                }
+            });
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+            mRemoved += count;
+            mOperations.add(() -> {
+                for (int i = 0; i < count; i++) {
+                    mRows.remove(position);
+                }
+            });
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+            mMoved++;
+            mOperations.add(() -> mRows.add(toPosition, mRows.remove(fromPosition)));
+        }
+
+        @Override
+        public void onChanged(int position, int count, @Nullable Object payload) {
+            mChanged += count;
+            mLastPayload = payload;
+        }
+
+        /**
+         * @return the rows after the updates, inserted rows take the ids of the new list.
+         */
+        List<String> apply(List<String> oldIds, List<ParticipantItem> newItems) {
+            mRows = new ArrayList<>(oldIds);
+            for (Runnable operation : mOperations) {
+                operation.run();
+            }
+            assertEquals(newItems.size(), mRows.size());
+            for (int i = 0; i < mRows.size(); i++) {
+                if (mRows.get(i) == null) {
+                    mRows.set(i, newItems.get(i).id);
+                }
+            }
+            return mRows;
+        }
+    }
+
+    private static List<ParticipantItem> roster(int size) {
+        List<ParticipantItem> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(item("p" + i));
+        }
+        return items;
+    }
+
+    private static ParticipantItem item(String id) {
+        return new ParticipantItem(new ParticipantsService.Participant(id), id, false, false, false, false, false);
+    }
+
+    private static ParticipantItem copy(ParticipantItem item, String name, boolean isAudioMuted,
+                                        boolean isVideoMuted) {
+        return new ParticipantItem(item.participant, name, isAudioMuted, isVideoMuted, item.isSelf,
+                item.isModerator, item.canDemote);
+    }
+
+    private static int indexOf(List<ParticipantItem> items, String id) {
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i).id.equals(id)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static List<String> ids(List<ParticipantItem> items) {
+        List<String> ids = new ArrayList<>(items.size());
+        for (ParticipantItem item : items) {
+            ids.add(item.id);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2021 Blue Jeans Network, Inc. All rights reserved.
+ */
+package com.bluejeans.android.sdksample.participantlist;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.bluejeans.bluejeanssdk.meeting.ParticipantsService;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ParticipantRosterTest {
+    private final ParticipantsService.Participant mAlice = new ParticipantsService.Participant("alice");
+    private final ParticipantsService.Participant mBob = new ParticipantsService.Participant("bob");
+    private final ParticipantsService.Participant mCarol = new ParticipantsService.Participant("carol");
+
+    @Test
+    public void rebuildsTheListFromEvents() {
+        ParticipantRoster roster = new ParticipantRoster();
+        roster.apply(new ParticipantEvent.Joined(1, mAlice));
+        roster.apply(new ParticipantEvent.Joined(2, mBob));
+        roster.apply(new ParticipantEvent.Joined(3, mCarol));
+        roster.apply(new ParticipantEvent.Left(4, mBob));
+
+        assertEquals(ids("alice", "carol"), ids(roster.getSnapshot()));
+        assertEquals(2, roster.size());
+    }
+
+    @Test
+    public void updateKeepsJoinOrderAndTakesTheLatestParticipant() {
+        ParticipantsService.Participant aliceUpdated = new ParticipantsService.Participant("alice");
+        ParticipantRoster roster = new ParticipantRoster();
+        roster.apply(new ParticipantEvent.Joined(1, mAlice));
+        roster.apply(new ParticipantEvent.Joined(2, mBob));
+        roster.apply(new ParticipantEvent.MuteStateChanged(3, aliceUpdated, true, false));
+
+        List<ParticipantsService.Participant> snapshot = roster.getSnapshot();
+        assertEquals(ids("alice", "bob"), ids(snapshot));
+        assertSame(aliceUpdated, snapshot.get(0));
+    }
+
+    @Test
+    public void rejoinGoesToTheEnd() {
+        ParticipantRoster roster = new ParticipantRoster();
+        roster.apply(new ParticipantEvent.Joined(1, mAlice));
+        roster.apply(new ParticipantEvent.Joined(2, mBob));
+        roster.apply(new ParticipantEvent.Left(3, mAlice));
+        roster.apply(new ParticipantEvent.Joined(4, mAlice));
+
+        assertEquals(ids("bob", "alice"), ids(roster.getSnapshot()));
+    }
+
+    @Test
+    public void eventsAlreadyAppliedAreIgnored() {
+        ParticipantRoster roster = new ParticipantRoster();
+        assertTrue(roster.apply(new ParticipantEvent.Joined(1, mAlice)));
+        assertTrue(roster.apply(new ParticipantEvent.Joined(2, mBob)));
+
+        assertFalse(roster.apply(new ParticipantEvent.Left(2, mBob)));
+        assertFalse(roster.apply(new ParticipantEvent.Left(1, mAlice)));
+        assertEquals(ids("alice", "bob"), ids(roster.getSnapshot()));
+    }
+
+    @Test
+    public void eventsAfterAGapAreStillApplied() {
+        ParticipantRoster roster = new ParticipantRoster();
+        roster.apply(new ParticipantEvent.Joined(1, mAlice));
+
+        assertTrue(roster.apply(new ParticipantEvent.Joined(4, mCarol)));
+        // the events of the gap arrive late and are dropped
+        assertFalse(roster.apply(new ParticipantEvent.Joined(2, mBob)));
+        assertEquals(ids("alice", "carol"), ids(roster.getSnapshot()));
+    }
+
+    @Test
+    public void clearRestartsTheSequence() {
+        ParticipantRoster roster = new ParticipantRoster();
+        roster.apply(new ParticipantEvent.Joined(1, mAlice));
+        roster.apply(new ParticipantEvent.Joined(2, mBob));
+        roster.clear();
+
+        assertEquals(0, roster.size());
+        assertTrue(roster.apply(new ParticipantEvent.Joined(1, mCarol)));
+        assertEquals(ids("carol"), ids(roster.getSnapshot()));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void snapshotIsImmutable() {
+        ParticipantRoster roster = new ParticipantRoster();
+        roster.apply(new ParticipantEvent.Joined(1, mAlice));
+        roster.getSnapshot().clear();
+    }
+
+    private static List<String> ids(String... ids) {
+        List<String> list = new ArrayList<>(ids.length);
+        for (String id : ids) {
+            list.add(id);
+        }
+        return list;
+    }
+
+    private static List<String> ids(List<ParticipantsService.Participant> participants) {
+        List<String> ids = new ArrayList<>(participants.size());
+        for (ParticipantsService.Participant participant : participants) {
+            ids.add(participant.getId());
+        }
+        return ids;
+    }
+}